@@ -0,0 +1,97 @@
+package com.example.demo.dto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.demo.entity.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// TaskResponse mapping and JSON encoding of task lists as the controllers return them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskResponseBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    int size;
+
+    private List<Task> tasks;
+    private List<TaskResponse> responses;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task();
+            task.setId((long) i);
+            task.setTitle("Task " + i);
+            task.setDescription(i % 3 == 0 ? null : "Description for task " + i + " with a few more words");
+            task.setDueDate(i % 4 == 0 ? null : now.plusHours(i % 200 - 100));
+            task.setPriority(Task.Priority.values()[i % 3]);
+            task.setStatus(Task.Status.values()[i % 3]);
+            task.setCreatedAt(now.minusMinutes(i));
+            task.setUpdatedAt(now.minusMinutes(i / 2));
+            tasks.add(task);
+        }
+        responses = new ArrayList<>(size);
+        for (Task task : tasks) {
+            responses.add(new TaskResponse(task, now));
+        }
+
+        // Same defaults Spring Boot applies to the MVC message converter
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, TaskResponse.class));
+    }
+
+    @Benchmark
+    public void constructPerRowClock(Blackhole bh) {
+        for (Task task : tasks) {
+            bh.consume(new TaskResponse(task));
+        }
+    }
+
+    @Benchmark
+    public void constructSharedClock(Blackhole bh) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            bh.consume(new TaskResponse(task, now));
+        }
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), responses);
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() throws IOException {
+        return writer.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.config;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.demo.util.TaskShard;
+import com.zaxxer.hikari.HikariDataSource;
+
+// The primary pool from spring.datasource.*, plus an optional read replica pool and optional task shards. The
+// application sees a lazy proxy, so transactions that never reach the database (cache hits, 304s) never check
+// out a connection, and the replica/shard choice is made at the first statement.
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnExpression("!'${datasource.replica.url:}'.isEmpty()")
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:}") String username,
+            @Value("${datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        dataSource.setPoolName("replica");
+        // A routing mistake fails loudly instead of writing to the replica
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // Each shard gets its own pool; datasource.task-shards.hikari.* applies to all of them
+    @Bean
+    public TaskShards taskShards(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            DataSourceProperties properties, Environment environment,
+            @Value("${datasource.task-shards.names:}") String[] names) {
+        Map<String, HikariDataSource> shards = new LinkedHashMap<>();
+        for (String name : names) {
+            String prefix = "datasource.task-shards." + name;
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(environment.getRequiredProperty(prefix + ".url"))
+                .username(environment.getProperty(prefix + ".username"))
+                .password(environment.getProperty(prefix + ".password"))
+                .build();
+            Binder.get(environment).bind("datasource.task-shards.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("shard-" + name);
+            shards.put(name, dataSource);
+        }
+        return new TaskShards(primaryDataSource, shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource,
+            TaskShards taskShards,
+            @Value("${datasource.replica.read-your-writes-ms:5000}") long readYourWritesMillis,
+            @Value("${datasource.replica.retry-after-ms:10000}") long retryAfterMillis) {
+        DataSource target = primaryDataSource;
+        HikariDataSource replica = replicaDataSource.getIfAvailable();
+        if (replica != null) {
+            target = new ReadReplicaRoutingDataSource(primaryDataSource, replica, readYourWritesMillis, retryAfterMillis);
+        }
+        if (taskShards.isSharded()) {
+            // The replica only mirrors the primary, so only primary reads can be sent to it
+            Map<Object, Object> targets = new HashMap<>();
+            for (String name : taskShards.names()) {
+                targets.put(name, name.equals(TaskShard.PRIMARY) ? target : taskShards.get(name));
+            }
+            TaskShardRoutingDataSource router = new TaskShardRoutingDataSource();
+            router.setTargetDataSources(targets);
+            router.setDefaultTargetDataSource(target);
+            router.afterPropertiesSet();
+            target = router;
+        }
+        return new LazyConnectionDataSourceProxy(target);
+    }
+}
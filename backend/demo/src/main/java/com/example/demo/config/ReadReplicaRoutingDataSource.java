@@ -0,0 +1,96 @@
+package com.example.demo.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.util.AfterCommit;
+import com.example.demo.util.ReplicaRead;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Hands out replica connections for reads wrapped in ReplicaRead.run() and
+ * primary connections for everything else. A user whose read-write
+ * transaction committed within the read-your-writes window reads from the
+ * primary, so they never see the replica lag behind their own change. If the
+ * replica cannot hand out a connection, reads go to the primary until
+ * retry-after has passed. Sits behind a LazyConnectionDataSourceProxy, so the
+ * choice is made at the first statement, not when the transaction begins.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryAfterMillis;
+    private final Cache<Long, Boolean> recentWriters;
+    private volatile long replicaDownUntil;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, long readYourWritesMillis, long retryAfterMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterMillis = retryAfterMillis;
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(readYourWritesMillis))
+            .build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(target -> target.getConnection(username, password));
+    }
+
+    private interface Connector {
+        Connection connect(DataSource target) throws SQLException;
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        Long userId = currentUserId();
+        if (!ReplicaRead.isRequested()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                // The window starts when the write becomes visible on the primary
+                AfterCommit.run(() -> recentWriters.put(userId, Boolean.TRUE));
+            }
+            return connector.connect(primary);
+        }
+        if ((userId != null && recentWriters.getIfPresent(userId) != null) || System.currentTimeMillis() < replicaDownUntil) {
+            return connector.connect(primary);
+        }
+        try {
+            return connector.connect(replica);
+        } catch (SQLFeatureNotSupportedException e) {
+            // The pool refuses per-call credentials; the replica itself is fine
+            throw e;
+        } catch (SQLException e) {
+            replicaDownUntil = System.currentTimeMillis() + retryAfterMillis;
+            log.warn("Read replica unavailable, reading from the primary for {} ms: {}", retryAfterMillis, e.getMessage());
+            return connector.connect(primary);
+        }
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+            ? principal.getId()
+            : null;
+    }
+}
@@ -3,16 +3,22 @@ package com.example.demo.config;
 import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.Http403ForbiddenEntryPoint;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
@@ -25,6 +31,11 @@ import org.springframework.boot.web.servlet.FilterRegistrationBean;
 
 import com.example.demo.security.JwtAuthenticationFilter;
 import com.example.demo.security.OAuth2AuthenticationSuccessHandler;
+import com.example.demo.security.UserConcurrencyLimitFilter;
+import com.example.demo.security.UserRateLimitFilter;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Configuration
 @EnableWebSecurity
@@ -36,7 +47,51 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Autowired
+    private UserConcurrencyLimitFilter userConcurrencyLimitFilter;
+    
+    @Autowired
+    private UserRateLimitFilter userRateLimitFilter;
+    
+    @Value("${management.operator.username:operator}")
+    private String operatorUsername;
+    
+    // A password in DelegatingPasswordEncoder form, e.g. {bcrypt}$2a$...; left empty, only health and prometheus are reachable
+    @Value("${management.operator.password:}")
+    private String operatorPassword;
+    
+    // Actuator on the management port: health and the Prometheus scrape are open, everything else needs the operator login
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        InMemoryUserDetailsManager operators = new InMemoryUserDetailsManager();
+        if (!operatorPassword.isBlank()) {
+            operators.createUser(User.withUsername(operatorUsername).password(operatorPassword).roles("OPERATOR").build());
+        }
+        // Answers 401 directly: sendError would dispatch to /error, which the application chain owns
+        AuthenticationEntryPoint operatorLogin = (request, response, e) -> {
+            response.setHeader("WWW-Authenticate", "Basic realm=\"management\"");
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        };
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                .anyRequest().hasRole("OPERATOR")
+            )
+            .userDetailsService(operators)
+            .httpBasic(basic -> basic.authenticationEntryPoint(operatorLogin))
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(operatorLogin)
+                .accessDeniedHandler((request, response, e) -> response.setStatus(HttpServletResponse.SC_FORBIDDEN))
+            );
+        return http.build();
+    }
+    
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -47,6 +102,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/oauth2/**", "/login/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
+                // SSE async re-dispatches were already authenticated when the stream was opened
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .anyRequest().authenticated()
             )
             .oauth2Login(oauth2 -> oauth2
@@ -56,6 +113,9 @@ public class SecurityConfig {
                 .successHandler(oauth2AuthenticationSuccessHandler)
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Rate limit first, so rejected requests never take one of the user's in-flight slots
+            .addFilterAfter(userRateLimitFilter, JwtAuthenticationFilter.class)
+            .addFilterAfter(userConcurrencyLimitFilter, UserRateLimitFilter.class)
             .exceptionHandling(exceptions -> exceptions
                 // For API endpoints return 403/401 instead of redirecting to OAuth login page
                 .defaultAuthenticationEntryPointFor(new Http403ForbiddenEntryPoint(), new AntPathRequestMatcher("/api/**"))
@@ -0,0 +1,9 @@
+package com.example.demo.config;
+
+// Thrown from the statement inspector when a request in reject mode issues one statement more than its budget
+public class StatementBudgetExceededException extends RuntimeException {
+
+    public StatementBudgetExceededException(int budget, String sql) {
+        super("SQL statement budget of " + budget + " exceeded by: " + sql);
+    }
+}
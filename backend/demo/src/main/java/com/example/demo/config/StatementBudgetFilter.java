@@ -0,0 +1,78 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements each request issues, including those run by the
+ * security filters, and checks them against the endpoint's budget: the
+ * handler's @StatementBudget, else sql.budget.default. In log mode an
+ * over-budget request is logged once it completes; in reject mode the
+ * statement that crosses the budget fails, so an N+1 breaks the tests
+ * instead of shipping. Runs ahead of Spring Security.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    // Statement count of the finished request, for tests (see SqlStatementMatchers)
+    public static final String STATEMENTS_ATTRIBUTE = StatementBudgetFilter.class.getName() + ".statements";
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // none | log | reject
+    @Value("${sql.budget.enforcement:log}")
+    private String enforcement;
+
+    @Value("${sql.budget.default:20}")
+    private int defaultBudget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        boolean enforce = !"none".equalsIgnoreCase(enforcement);
+        statementCounter.start(enforce ? defaultBudget : 0, "reject".equalsIgnoreCase(enforcement));
+        StatementCounter.Usage usage;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            usage = statementCounter.stop();
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        request.setAttribute(STATEMENTS_ATTRIBUTE, usage.statements());
+        DistributionSummary.builder("hibernate.request.statements")
+            .description("SQL statements prepared while handling one request")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(usage.statements());
+        if (usage.overBudget()) {
+            log.warn("{} {} issued {} SQL statements, budget is {}",
+                request.getMethod(), uri, usage.statements(), usage.budget());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Applies the handler's @StatementBudget to the count StatementBudgetFilter started for the request
+@Component
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            StatementBudget budget = method.getMethodAnnotation(StatementBudget.class);
+            if (budget == null) {
+                budget = method.getBeanType().getAnnotation(StatementBudget.class);
+            }
+            if (budget != null) {
+                statementCounter.setBudget(budget.value());
+            }
+        }
+        return true;
+    }
+}
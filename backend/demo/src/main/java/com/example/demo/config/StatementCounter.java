@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+// Counts the SQL statements Hibernate prepares on the current thread between start() and stop()
+@Component
+public class StatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    public record Usage(int statements, int budget) {
+        public boolean overBudget() {
+            return budget > 0 && statements > budget;
+        }
+    }
+
+    private static final class Tally {
+        private int count;
+        private int budget;
+        private boolean reject;
+    }
+
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Tally tally = CURRENT.get();
+        if (tally != null && ++tally.count > tally.budget && tally.budget > 0 && tally.reject) {
+            throw new StatementBudgetExceededException(tally.budget, sql);
+        }
+        return sql;
+    }
+
+    /** Starts counting on this thread; a budget of 0 means unlimited. */
+    public void start(int budget, boolean reject) {
+        Tally tally = new Tally();
+        tally.budget = budget;
+        tally.reject = reject;
+        CURRENT.set(tally);
+    }
+
+    /** Replaces the budget of the running count, e.g. once the handler is known. */
+    public void setBudget(int budget) {
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.budget = budget;
+        }
+    }
+
+    public Usage stop() {
+        Tally tally = CURRENT.get();
+        CURRENT.remove();
+        return tally == null ? new Usage(0, 0) : new Usage(tally.count, tally.budget);
+    }
+}
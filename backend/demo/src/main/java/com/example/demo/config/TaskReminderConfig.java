@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import com.example.demo.service.LoggingTaskReminderSink;
+import com.example.demo.service.TaskReminderSink;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+// Reminders are only logged unless the app provides its own TaskReminderSink bean, e.g. a mail or push sink. Listed in
+// AutoConfiguration.imports rather than scanned, so the condition is checked after every other bean is registered
+@AutoConfiguration
+public class TaskReminderConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(TaskReminderSink.class)
+    public TaskReminderSink loggingTaskReminderSink() {
+        return new LoggingTaskReminderSink();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Task ids used to come from AUTO_INCREMENT. On MySQL the tasks_seq table that replaced it is
+// created empty, so move it past the existing ids before the first insert. Each task shard also
+// gets its own id range, so ids stay unique when a user's rows are moved to another shard.
+// Runs once the schema exists but before the web server starts, so no request can insert first.
+@Component
+public class TaskSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSequenceInitializer.class);
+
+    // Must match allocationSize on Task.id and TaskTombstone.id
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Shard n hands out ids from [n << 40, (n + 1) << 40); the primary is shard 0
+    private static final int SHARD_ID_BITS = 40;
+
+    private static final String[][] SEQUENCES = {
+        {"tasks_seq", "tasks"},
+        {"task_tombstones_seq", "task_tombstones"}
+    };
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String shard : taskShards.names()) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(taskShards.get(shard));
+            long base = (long) taskShards.number(shard) << SHARD_ID_BITS;
+            for (String[] sequence : SEQUENCES) {
+                advance(jdbcTemplate, shard, sequence[0], sequence[1], base);
+            }
+        }
+    }
+
+    private void advance(JdbcTemplate jdbcTemplate, String shard, String sequence, String table, long base) {
+        try {
+            // Rows moved in from other shards keep their ids, so only this shard's own range counts
+            Long maxId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM " + table + " WHERE id >= ? AND id < ?",
+                Long.class, base, base + (1L << SHARD_ID_BITS));
+            long floor = Math.max(maxId, base);
+            int updated = jdbcTemplate.update(
+                "UPDATE " + sequence + " SET next_val = ? WHERE next_val <= ?",
+                floor + ALLOCATION_SIZE + 1, floor + ALLOCATION_SIZE);
+            if (updated > 0) {
+                log.info("Advanced {} on shard {} past id {}", sequence, shard, floor);
+            }
+        } catch (DataAccessException e) {
+            // Databases with native sequences have no sequence table to fix up
+            log.debug("Skipping {} initialization on shard {}: {}", sequence, shard, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.TaskShardDirectory;
+import com.example.demo.util.TaskShard;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Sends every query of a /api/tasks request to the caller's shard, and refuses their writes while a move is copying
+// them; writes that are already running are fenced again at commit by TaskShardDirectory.fenceWrites
+@Component
+public class TaskShardInterceptor implements AsyncHandlerInterceptor {
+
+    @Autowired
+    private TaskShardDirectory directory;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!directory.isEnabled()) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            return true;
+        }
+
+        TaskShardDirectory.Placement placement = directory.lookup(principal.getId());
+        String method = request.getMethod();
+        if (placement.moving() && !method.equals("GET") && !method.equals("HEAD")) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(directory.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Tasks are being moved, try again shortly");
+            return false;
+        }
+        TaskShard.enter(placement.shard());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TaskShard.exit();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TaskShard.exit();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.example.demo.util.TaskShard;
+
+// Picks the shard named by TaskShard for the calling thread; without one, the primary (the default target)
+public class TaskShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public TaskShardRoutingDataSource() {
+        // An unknown shard name is a configuration error, not a reason to fall back to the primary
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TaskShard.current();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import com.example.demo.util.TaskShard;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The databases that hold task rows: the primary, then the shards from
+ * datasource.task-shards.names in their configured order. A shard's position
+ * is its number, which fixes the id range its sequences hand out, so new
+ * shards must be appended to the list, never inserted.
+ */
+public class TaskShards implements AutoCloseable {
+
+    private final Map<String, DataSource> shards = new LinkedHashMap<>();
+
+    public TaskShards(DataSource primary, Map<String, HikariDataSource> extraShards) {
+        shards.put(TaskShard.PRIMARY, primary);
+        shards.putAll(extraShards);
+    }
+
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+
+    public List<String> names() {
+        return new ArrayList<>(shards.keySet());
+    }
+
+    public boolean contains(String name) {
+        return shards.containsKey(name);
+    }
+
+    public DataSource get(String name) {
+        DataSource dataSource = shards.get(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown task shard: " + name);
+        }
+        return dataSource;
+    }
+
+    public int number(String name) {
+        return names().indexOf(name);
+    }
+
+    @Override
+    public void close() {
+        // The primary pool is a bean of its own
+        for (DataSource dataSource : shards.values()) {
+            if (dataSource instanceof HikariDataSource pool && !pool.getPoolName().equals("primary")) {
+                pool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.service.TaskShardDirectory;
+import com.example.demo.service.TaskShardMover;
+
+// Operator access to the shard map on the management port, behind the operator login: GET /actuator/taskshards/{userId}
+// shows where a user's tasks live as stored, POST with {"shard": "..."} starts moving them there and returns at once
+@Component
+@Endpoint(id = "taskshards")
+public class TaskShardsEndpoint {
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Autowired
+    private TaskShardDirectory directory;
+
+    @Autowired
+    private TaskShardMover mover;
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        return Map.of("shards", taskShards.names());
+    }
+
+    @ReadOperation
+    public TaskShardDirectory.Placement placement(@Selector Long userId) {
+        return directory.stored(userId);
+    }
+
+    @WriteOperation
+    public Map<String, Object> move(@Selector Long userId, String shard) {
+        if (!taskShards.contains(shard)) {
+            throw new InvalidEndpointRequestException("Unknown task shard: " + shard, "Unknown task shard");
+        }
+        mover.startMove(userId, shard);
+        return Map.of("userId", userId, "shard", shard, "status", "started");
+    }
+}
@@ -1,66 +1,231 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.StatementBudget;
+import com.example.demo.dto.BulkTaskRequest;
+import com.example.demo.dto.TaskChangesResponse;
+import com.example.demo.dto.TaskImportResponse;
+import com.example.demo.dto.TaskPageResponse;
 import com.example.demo.dto.TaskRequest;
 import com.example.demo.dto.TaskResponse;
+import com.example.demo.dto.TaskSearchCriteria;
+import com.example.demo.dto.TaskSearchResponse;
+import com.example.demo.dto.TaskStatsResponse;
 import com.example.demo.entity.Task;
+import com.example.demo.security.UserPrincipal;
+import com.example.demo.service.TaskExportService;
+import com.example.demo.service.TaskImportService;
 import com.example.demo.service.TaskService;
+import com.example.demo.service.TaskShardMovingException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/tasks")
 @CrossOrigin(origins = "http://localhost:4200")
+@StatementBudget(5)
 public class TaskController {
 
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Value("${tasks.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${tasks.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${tasks.bulk.max-size:10000}")
+    private int maxBulkSize;
+
     @GetMapping
-    public ResponseEntity<List<TaskResponse>> getAllTasks(Authentication authentication) {
-        String userEmail = authentication.getName();
-        List<TaskResponse> tasks = taskService.getAllTasksByUser(userEmail);
+    public ResponseEntity<List<TaskResponse>> getAllTasks(
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest webRequest) {
+        return conditional(principal, webRequest, () -> taskService.getAllTasksByUser(principal.getId()));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<TaskPageResponse> getTaskPage(
+            @RequestParam(required = false) Task.Status status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest webRequest) {
+        try {
+            return conditional(principal, webRequest,
+                () -> taskService.getTaskPage(principal.getId(), status, cursor, pageSize(limit)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<TaskSearchResponse> searchTasks(
+            @ModelAttribute TaskSearchCriteria criteria,
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest webRequest) {
+        return conditional(principal, webRequest,
+            () -> taskService.searchTasks(principal.getId(), criteria, pageSize(criteria.getSize())));
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<List<TaskResponse>> searchText(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        List<TaskResponse> tasks = taskService.searchText(principal.getId(), q, pageSize(limit));
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            TaskChangesResponse changes = taskService.getChanges(principal.getId(), since, pageSize(limit));
+            return ResponseEntity.ok(changes);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.GONE, e.getMessage());
+        }
+    }
+
+    // Written straight to the response batch by batch, so no task list is built in memory
+    @GetMapping("/export")
+    public void exportTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @AuthenticationPrincipal UserPrincipal principal,
+            HttpServletResponse response) throws IOException {
+        TaskExportService.Format exportFormat;
+        try {
+            exportFormat = TaskExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format must be ndjson or csv");
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.getExtension() + "\"");
+        taskExportService.export(principal.getId(), exportFormat, response.getOutputStream());
+    }
+
+    // Authenticated once when the connection opens; events are then pushed without further auth work
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents(@AuthenticationPrincipal UserPrincipal principal) {
+        return taskService.subscribe(principal.getId());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsResponse> getTaskStats(
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest webRequest) {
+        return conditional(principal, webRequest, () -> taskService.getTaskStats(principal.getId()));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<TaskResponse>> getTasksByStatus(
             @PathVariable Task.Status status,
-            Authentication authentication) {
-        String userEmail = authentication.getName();
-        List<TaskResponse> tasks = taskService.getTasksByStatus(userEmail, status);
-        return ResponseEntity.ok(tasks);
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest webRequest) {
+        return conditional(principal, webRequest, () -> taskService.getTasksByStatus(principal.getId(), status));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponse> getTaskById(
             @PathVariable Long id,
-            Authentication authentication) {
-        String userEmail = authentication.getName();
-        TaskResponse task = taskService.getTaskById(userEmail, id);
+            @AuthenticationPrincipal UserPrincipal principal) {
+        TaskResponse task = taskService.getTaskById(principal.getId(), id);
         return ResponseEntity.ok(task);
     }
 
     @PostMapping
     public ResponseEntity<TaskResponse> createTask(
             @Valid @RequestBody TaskRequest taskRequest,
-            Authentication authentication) {
-        String userEmail = authentication.getName();
-        TaskResponse createdTask = taskService.createTask(userEmail, taskRequest);
+            @AuthenticationPrincipal UserPrincipal principal) {
+        TaskResponse createdTask = taskService.createTask(principal.getId(), taskRequest);
         return ResponseEntity.ok(createdTask);
     }
 
+    // One sequence fetch and one insert batch per 50 tasks, up to tasks.bulk.max-size
+    @StatementBudget(500)
+    @PostMapping("/bulk")
+    public ResponseEntity<List<TaskResponse>> createTasks(
+            @RequestBody List<@Valid TaskRequest> taskRequests,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        checkBulkSize(taskRequests.size());
+        List<TaskResponse> createdTasks = taskService.createTasks(principal.getId(), taskRequests);
+        return ResponseEntity.ok(createdTasks);
+    }
+
+    @PatchMapping("/bulk/status")
+    public ResponseEntity<Map<String, Integer>> updateTasksStatus(
+            @Valid @RequestBody BulkTaskRequest bulkRequest,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        if (bulkRequest.getStatus() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Status is required");
+        }
+        checkBulkSize(bulkRequest.getIds().size());
+        int updated = taskService.updateTasksStatus(principal.getId(), bulkRequest.getIds(), bulkRequest.getStatus());
+        return ResponseEntity.ok(Map.of("requested", bulkRequest.getIds().size(), "updated", updated));
+    }
+
+    // One sequence fetch and one tombstone batch per 50 tasks, up to tasks.bulk.max-size
+    @StatementBudget(500)
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<Map<String, Integer>> deleteTasks(
+            @Valid @RequestBody BulkTaskRequest bulkRequest,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        checkBulkSize(bulkRequest.getIds().size());
+        int deleted = taskService.deleteTasks(principal.getId(), bulkRequest.getIds());
+        return ResponseEntity.ok(Map.of("requested", bulkRequest.getIds().size(), "deleted", deleted));
+    }
+
+    // Read and committed chunk by chunk while the upload arrives; lines that fail are listed in the report.
+    // Unbounded budget: a sequence fetch and an insert batch per 50 rows, however large the file
+    @StatementBudget(0)
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<TaskImportResponse> importTasks(
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserPrincipal principal) throws IOException {
+        TaskImportService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(CSV)
+            ? TaskImportService.Format.CSV
+            : TaskImportService.Format.NDJSON;
+        return ResponseEntity.ok(taskImportService.importTasks(principal.getId(), format, request.getInputStream()));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> updateTask(
             @PathVariable Long id,
             @Valid @RequestBody TaskRequest taskRequest,
-            Authentication authentication) {
-        String userEmail = authentication.getName();
-        TaskResponse updatedTask = taskService.updateTask(userEmail, id, taskRequest);
+            @AuthenticationPrincipal UserPrincipal principal) {
+        TaskResponse updatedTask = taskService.updateTask(principal.getId(), id, taskRequest);
         return ResponseEntity.ok(updatedTask);
     }
 
@@ -68,25 +233,90 @@ public class TaskController {
     public ResponseEntity<TaskResponse> updateTaskStatus(
             @PathVariable Long id,
             @RequestParam Task.Status status,
-            Authentication authentication) {
-        String userEmail = authentication.getName();
-        TaskResponse updatedTask = taskService.updateTaskStatus(userEmail, id, status);
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        // Prefer: return=minimal (RFC 7240) skips reading the task back after the update
+        boolean minimal = prefer != null && prefer.contains("return=minimal");
+        TaskResponse updatedTask = taskService.updateTaskStatus(principal.getId(), id, status, !minimal);
+        if (minimal) {
+            return ResponseEntity.noContent().build();
+        }
         return ResponseEntity.ok(updatedTask);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(
             @PathVariable Long id,
-            Authentication authentication) {
-        String userEmail = authentication.getName();
-        taskService.deleteTask(userEmail, id);
+            @AuthenticationPrincipal UserPrincipal principal) {
+        taskService.deleteTask(principal.getId(), id);
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/overdue")
-    public ResponseEntity<List<TaskResponse>> getOverdueTasks(Authentication authentication) {
-        String userEmail = authentication.getName();
-        List<TaskResponse> overdueTasks = taskService.getOverdueTasks(userEmail);
-        return ResponseEntity.ok(overdueTasks);
+    public ResponseEntity<List<TaskResponse>> getOverdueTasks(
+            @AuthenticationPrincipal UserPrincipal principal,
+            WebRequest webRequest) {
+        return conditional(principal, webRequest, () -> taskService.getOverdueTasks(principal.getId()));
+    }
+
+    // Answers If-None-Match with 304 before the body is computed, so unchanged collections cost no queries
+    private <T> ResponseEntity<T> conditional(UserPrincipal principal, WebRequest webRequest, Supplier<T> body) {
+        String etag = taskService.getTasksEtag(principal.getId());
+        if (etag == null) {
+            return ResponseEntity.ok()
+                .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT)
+                .body(body.get());
+        }
+        // Sent weak: one tag covers the JSON, CBOR, Smile and gzipped forms, and Tomcat won't compress under a strong one
+        String weakEtag = "W/" + etag;
+        // Let browsers keep the response but revalidate it every time
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        if (etagMatches(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(weakEtag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(weakEtag)
+            .cacheControl(cacheControl)
+            .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT)
+            .body(body.get());
+    }
+
+    // A write that was already running when the user's move began; it was rolled back, so the client can retry
+    @ExceptionHandler(TaskShardMovingException.class)
+    public void tasksMoving(TaskShardMovingException e, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkBulkSize(int size) {
+        if (size > maxBulkSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "At most " + maxBulkSize + " tasks per bulk request");
+        }
+    }
+
+    private int pageSize(Integer requested) {
+        return requested == null ? defaultPageSize : Math.max(1, Math.min(requested, maxPageSize));
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Task;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+// Body for the bulk status-change and bulk delete endpoints
+public class BulkTaskRequest {
+    @NotEmpty(message = "Task ids are required")
+    private List<Long> ids;
+
+    // Only used by the bulk status endpoint
+    private Task.Status status;
+
+    // Constructors
+    public BulkTaskRequest() {}
+
+    public BulkTaskRequest(List<Long> ids, Task.Status status) {
+        this.ids = ids;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public Task.Status getStatus() { return status; }
+    public void setStatus(Task.Status status) { this.status = status; }
+}
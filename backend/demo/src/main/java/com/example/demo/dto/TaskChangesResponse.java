@@ -0,0 +1,37 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class TaskChangesResponse {
+    // Tasks created or updated since the cursor
+    private List<TaskResponse> changed;
+    // Ids of tasks deleted since the cursor
+    private List<Long> deleted;
+    // Cursor to pass as 'since' on the next call
+    private String next;
+    // True when more changes are waiting; call again right away with 'next'
+    private boolean hasMore;
+
+    // Constructors
+    public TaskChangesResponse() {}
+
+    public TaskChangesResponse(List<TaskResponse> changed, List<Long> deleted, String next, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.next = next;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<TaskResponse> getChanged() { return changed; }
+    public void setChanged(List<TaskResponse> changed) { this.changed = changed; }
+
+    public List<Long> getDeleted() { return deleted; }
+    public void setDeleted(List<Long> deleted) { this.deleted = deleted; }
+
+    public String getNext() { return next; }
+    public void setNext(String next) { this.next = next; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// Payload pushed to /api/tasks/stream subscribers
+public class TaskEvent {
+    public enum Type {
+        CREATED, UPDATED, DELETED, BULK_UPDATED
+    }
+
+    private Type type;
+    private List<Long> taskIds;
+    // Present for CREATED and UPDATED
+    private TaskResponse task;
+
+    // Constructors
+    public TaskEvent() {}
+
+    public TaskEvent(Type type, List<Long> taskIds, TaskResponse task) {
+        this.type = type;
+        this.taskIds = taskIds;
+        this.task = task;
+    }
+
+    // Getters and Setters
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public List<Long> getTaskIds() { return taskIds; }
+    public void setTaskIds(List<Long> taskIds) { this.taskIds = taskIds; }
+
+    public TaskResponse getTask() { return task; }
+    public void setTask(TaskResponse task) { this.task = task; }
+}
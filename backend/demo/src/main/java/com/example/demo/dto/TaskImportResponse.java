@@ -0,0 +1,49 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TaskImportResponse {
+    public static class LineError {
+        // 1-based line in the uploaded file; for CSV, the line the record starts on
+        private long line;
+        private String message;
+
+        // Constructors
+        public LineError() {}
+
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        // Getters and Setters
+        public long getLine() { return line; }
+        public void setLine(long line) { this.line = line; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+
+    private long imported;
+    private long failed;
+    // The first tasks.import.max-errors failures; 'failed' counts all of them
+    private List<LineError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    // Constructors
+    public TaskImportResponse() {}
+
+    // Getters and Setters
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public List<LineError> getErrors() { return errors; }
+    public void setErrors(List<LineError> errors) { this.errors = errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+}
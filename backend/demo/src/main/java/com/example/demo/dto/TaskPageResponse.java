@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class TaskPageResponse {
+    private List<TaskResponse> items;
+    // Opaque cursor for the next page, or null when this is the last page
+    private String next;
+
+    // Constructors
+    public TaskPageResponse() {}
+
+    public TaskPageResponse(List<TaskResponse> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    // Getters and Setters
+    public List<TaskResponse> getItems() { return items; }
+    public void setItems(List<TaskResponse> items) { this.items = items; }
+
+    public String getNext() { return next; }
+    public void setNext(String next) { this.next = next; }
+}
@@ -19,15 +19,31 @@ public class TaskResponse {
     public TaskResponse() {}
 
     public TaskResponse(Task task) {
-        this.id = task.getId();
-        this.title = task.getTitle();
-        this.description = task.getDescription();
-        this.dueDate = task.getDueDate();
-        this.priority = task.getPriority();
-        this.status = task.getStatus();
-        this.createdAt = task.getCreatedAt();
-        this.updatedAt = task.getUpdatedAt();
-        this.overdue = task.getDueDate() != null && task.getDueDate().isBefore(LocalDateTime.now()) && task.getStatus() != Task.Status.DONE;
+        this(task, LocalDateTime.now());
+    }
+
+    public TaskResponse(Task task, LocalDateTime now) {
+        this(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(), task.getPriority(),
+            task.getStatus(), task.getCreatedAt(), task.getUpdatedAt());
+        markOverdue(now);
+    }
+
+    // Used by JPQL constructor expressions; call markOverdue once the clock has been read
+    public TaskResponse(Long id, String title, String description, LocalDateTime dueDate, Task.Priority priority,
+            Task.Status status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.priority = priority;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public TaskResponse markOverdue(LocalDateTime now) {
+        this.overdue = dueDate != null && dueDate.isBefore(now) && status != Task.Status.DONE;
+        return this;
     }
 
     // Getters and Setters
@@ -0,0 +1,56 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Task;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Query parameters accepted by GET /api/tasks/search
+public class TaskSearchCriteria {
+    public enum SortBy {
+        RECENT, DEADLINE, PRIORITY
+    }
+
+    private Task.Status status;
+    private String q;
+    private Task.Priority priority;
+    private boolean overdue;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+
+    private SortBy sort = SortBy.RECENT;
+    private int page = 0;
+    private Integer size;
+
+    // Getters and Setters
+    public Task.Status getStatus() { return status; }
+    public void setStatus(Task.Status status) { this.status = status; }
+
+    public String getQ() { return q; }
+    public void setQ(String q) { this.q = q; }
+
+    public Task.Priority getPriority() { return priority; }
+    public void setPriority(Task.Priority priority) { this.priority = priority; }
+
+    public boolean isOverdue() { return overdue; }
+    public void setOverdue(boolean overdue) { this.overdue = overdue; }
+
+    public LocalDate getDueFrom() { return dueFrom; }
+    public void setDueFrom(LocalDate dueFrom) { this.dueFrom = dueFrom; }
+
+    public LocalDate getDueTo() { return dueTo; }
+    public void setDueTo(LocalDate dueTo) { this.dueTo = dueTo; }
+
+    public SortBy getSort() { return sort; }
+    public void setSort(SortBy sort) { this.sort = sort; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+}
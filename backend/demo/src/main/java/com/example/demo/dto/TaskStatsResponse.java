@@ -0,0 +1,35 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Task;
+
+import java.util.Map;
+
+public class TaskStatsResponse {
+    private long total;
+    private long overdue;
+    private Map<Task.Status, Long> byStatus;
+    private Map<Task.Priority, Long> byPriority;
+
+    // Constructors
+    public TaskStatsResponse() {}
+
+    public TaskStatsResponse(long total, long overdue, Map<Task.Status, Long> byStatus, Map<Task.Priority, Long> byPriority) {
+        this.total = total;
+        this.overdue = overdue;
+        this.byStatus = byStatus;
+        this.byPriority = byPriority;
+    }
+
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getOverdue() { return overdue; }
+    public void setOverdue(long overdue) { this.overdue = overdue; }
+
+    public Map<Task.Status, Long> getByStatus() { return byStatus; }
+    public void setByStatus(Map<Task.Status, Long> byStatus) { this.byStatus = byStatus; }
+
+    public Map<Task.Priority, Long> getByPriority() { return byPriority; }
+    public void setByPriority(Map<Task.Priority, Long> byPriority) { this.byPriority = byPriority; }
+}
@@ -2,13 +2,21 @@ package com.example.demo.entity;
 
 import com.example.demo.model.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_tasks_user_status_created", columnList = "user_id, status, created_at, id"),
+    @Index(name = "idx_tasks_user_change", columnList = "user_id, change_seq, id"),
+    @Index(name = "idx_tasks_due", columnList = "due_date, id")
+})
 public class Task {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -28,6 +36,8 @@ public class Task {
     @Column(nullable = false)
     private Status status = Status.TODO;
 
+    // ddl-auto only manages the primary, where the users table is, so the foreign key exists there; shard schemas
+    // are created by hand without it
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -38,6 +48,12 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // The user's change sequence value of the write that last touched the row, see TaskChangeSeq
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    // CBOR and Smile responses send Priority and Status as ordinals, so only ever append new values
     public enum Priority {
         LOW, MEDIUM, HIGH
     }
@@ -95,5 +111,8 @@ public class Task {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(long changeSeq) { this.changeSeq = changeSeq; }
 }
 
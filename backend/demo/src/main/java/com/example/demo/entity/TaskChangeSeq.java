@@ -0,0 +1,31 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+// Per-user delta sync counter, kept on the user's task shard. Each task write takes the next value under this row's
+// lock and stamps its rows with it, so a user's values commit in the order they were handed out
+@Entity
+@Table(name = "task_change_seqs")
+public class TaskChangeSeq {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long seq;
+
+    // Constructors
+    public TaskChangeSeq() {}
+
+    public TaskChangeSeq(Long userId, long seq) {
+        this.userId = userId;
+        this.seq = seq;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+}
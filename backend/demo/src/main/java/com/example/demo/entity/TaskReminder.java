@@ -0,0 +1,64 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Outbox row for a fired due-date reminder, deleted once the outbox worker has delivered it
+@Entity
+@Table(name = "task_reminder_outbox")
+public class TaskReminder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_reminder_outbox_seq")
+    @SequenceGenerator(name = "task_reminder_outbox_seq", sequenceName = "task_reminder_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDateTime dueDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum Type {
+        DUE_SOON, OVERDUE
+    }
+
+    // Constructors
+    public TaskReminder() {}
+
+    public TaskReminder(Long taskId, Long userId, Type type, LocalDateTime dueDate, LocalDateTime createdAt) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.type = type;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+    public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Shard directory entry, kept on the primary; users without one have their tasks on the primary
+@Entity
+@Table(name = "user_shards")
+public class UserShard {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    private String shard;
+
+    // Set while the user's tasks are copied to another shard; their task writes are refused until it clears
+    @Column(nullable = false)
+    private boolean moving;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public UserShard() {}
+
+    public UserShard(Long userId, String shard, boolean moving, LocalDateTime updatedAt) {
+        this.userId = userId;
+        this.shard = shard;
+        this.moving = moving;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getShard() { return shard; }
+    public void setShard(String shard) { this.shard = shard; }
+
+    public boolean isMoving() { return moving; }
+    public void setMoving(boolean moving) { this.moving = moving; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskResponse;
+import com.example.demo.entity.Task;
+
+import java.time.LocalDateTime;
+
+// A delta sync row: the task as the client gets it, plus the change sequence value the cursor resumes after
+public class TaskChangeRow {
+
+    private final TaskResponse task;
+    private final long changeSeq;
+
+    public TaskChangeRow(Long id, String title, String description, LocalDateTime dueDate, Task.Priority priority,
+            Task.Status status, LocalDateTime createdAt, LocalDateTime updatedAt, long changeSeq) {
+        this.task = new TaskResponse(id, title, description, dueDate, priority, status, createdAt, updatedAt);
+        this.changeSeq = changeSeq;
+    }
+
+    public TaskResponse getTask() { return task; }
+
+    public long getChangeSeq() { return changeSeq; }
+}
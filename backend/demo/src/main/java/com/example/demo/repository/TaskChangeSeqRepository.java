@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TaskChangeSeq;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskChangeSeqRepository extends JpaRepository<TaskChangeSeq, Long> {
+
+    // One statement for a user's first write and every later one; the row stays locked until the transaction ends
+    @Modifying
+    @Query(value = "INSERT INTO task_change_seqs (user_id, seq) VALUES (:userId, 1) ON DUPLICATE KEY UPDATE seq = seq + 1",
+           nativeQuery = true)
+    int increment(@Param("userId") Long userId);
+
+    @Query("SELECT s.seq FROM TaskChangeSeq s WHERE s.userId = :userId")
+    Optional<Long> findSeq(@Param("userId") Long userId);
+}
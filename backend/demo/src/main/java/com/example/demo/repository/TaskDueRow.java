@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+
+// The fields the reminder scheduler needs to arm timers for an open task
+public interface TaskDueRow {
+    Long getId();
+    Long getUserId();
+    LocalDateTime getDueDate();
+}
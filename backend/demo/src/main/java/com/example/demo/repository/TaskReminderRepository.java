@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TaskReminder;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskReminderRepository extends JpaRepository<TaskReminder, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2) so concurrent drainers never deliver the same row twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM TaskReminder r ORDER BY r.id ASC")
+    List<TaskReminder> findDeliveryBatch(Pageable pageable);
+}
@@ -1,30 +1,116 @@
 // filepath: d:\todo-webapp\backend\demo\src\main\java\com\example\demo\repository\TaskRepository.java
 package com.example.demo.repository;
 
+import com.example.demo.dto.TaskResponse;
 import com.example.demo.entity.Task;
 import com.example.demo.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
     
-    List<Task> findByUserOrderByCreatedAtDesc(User user);
+    // Read path: select exactly the TaskResponse columns instead of hydrating managed entities
+    String SELECT_RESPONSE = "SELECT new com.example.demo.dto.TaskResponse(t.id, t.title, t.description, t.dueDate, "
+                           + "t.priority, t.status, t.createdAt, t.updatedAt) FROM Task t ";
     
-    List<Task> findByUserAndStatusOrderByCreatedAtDesc(User user, Task.Status status);
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId ORDER BY t.createdAt DESC")
+    List<TaskResponse> findResponsesByUserId(@Param("userId") Long userId);
+    
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId AND t.status = :status ORDER BY t.createdAt DESC")
+    List<TaskResponse> findResponsesByUserIdAndStatus(@Param("userId") Long userId, @Param("status") Task.Status status);
+    
+    @Query(SELECT_RESPONSE + "WHERE t.id = :id AND t.user.id = :userId")
+    Optional<TaskResponse> findResponseIfOwned(@Param("userId") Long userId, @Param("id") Long id);
+    
+    // Keyset pagination over (createdAt, id), backed by the idx_tasks_user_created / idx_tasks_user_status_created indexes
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskResponse> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId AND t.status = :status ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskResponse> findFirstPageByStatus(@Param("userId") Long userId, @Param("status") Task.Status status, Pageable pageable);
+    
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskResponse> findPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId AND t.status = :status AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskResponse> findPageAfterByStatus(@Param("userId") Long userId, @Param("status") Task.Status status, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
     
     List<Task> findByUserAndPriorityOrderByCreatedAtDesc(User user, Task.Priority priority);
     
     @Query("SELECT t FROM Task t WHERE t.user = :user AND t.dueDate BETWEEN :start AND :end ORDER BY t.dueDate ASC")
     List<Task> findByUserAndDueDateBetween(@Param("user") User user, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
     
-    @Query("SELECT t FROM Task t WHERE t.user = :user AND t.dueDate < :now AND t.status != 'DONE' ORDER BY t.dueDate ASC")
-    List<Task> findOverdueTasks(@Param("user") User user, @Param("now") LocalDateTime now);
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId AND t.dueDate < :now AND t.status != 'DONE' ORDER BY t.dueDate ASC")
+    List<TaskResponse> findOverdueTasks(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    // Delta sync: tasks changed after the (changeSeq, id) cursor, backed by idx_tasks_user_change
+    @Query("SELECT new com.example.demo.repository.TaskChangeRow(t.id, t.title, t.description, t.dueDate, t.priority, "
+         + "t.status, t.createdAt, t.updatedAt, t.changeSeq) FROM Task t WHERE t.user.id = :userId "
+         + "AND (t.changeSeq > :changeSeq OR (t.changeSeq = :changeSeq AND t.id > :id)) "
+         + "ORDER BY t.changeSeq ASC, t.id ASC")
+    List<TaskChangeRow> findChangesAfter(@Param("userId") Long userId, @Param("changeSeq") long changeSeq,
+            @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    List<Long> findOwnedIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description FROM Task t WHERE t.user.id = :userId")
+    List<TaskSearchText> findSearchTextByUserId(@Param("userId") Long userId);
+    
+    // Ownership-checked single-statement writes: 0 affected rows means the task is missing or not the user's
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :status, t.updatedAt = :now, t.changeSeq = :changeSeq WHERE t.id = :id AND t.user.id = :userId")
+    int updateStatusIfOwned(@Param("userId") Long userId, @Param("id") Long id, @Param("status") Task.Status status, @Param("now") LocalDateTime now, @Param("changeSeq") long changeSeq);
+    
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id = :id AND t.user.id = :userId")
+    int deleteIfOwned(@Param("userId") Long userId, @Param("id") Long id);
+    
+    @Query("SELECT t.status AS status, t.priority AS priority, t.dueDate AS dueDate FROM Task t WHERE t.id = :id AND t.user.id = :userId")
+    Optional<TaskStateRow> findStateIfOwned(@Param("userId") Long userId, @Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :status, t.updatedAt = :now, t.changeSeq = :changeSeq WHERE t.user.id = :userId AND t.id IN :ids")
+    int updateStatusForUser(@Param("userId") Long userId, @Param("ids") Collection<Long> ids, @Param("status") Task.Status status, @Param("now") LocalDateTime now, @Param("changeSeq") long changeSeq);
+    
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    int deleteForUser(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+    
+    // Counts by status and priority plus overdue counts, all in one grouped scan of the user's rows
+    @Query("SELECT t.status AS status, t.priority AS priority, COUNT(t) AS count, "
+         + "SUM(CASE WHEN t.dueDate < :now AND t.status <> com.example.demo.entity.Task.Status.DONE THEN 1 ELSE 0 END) AS overdue "
+         + "FROM Task t WHERE t.user.id = :userId GROUP BY t.status, t.priority")
+    List<TaskStatsRow> countStatsByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT t.dueDate FROM Task t WHERE t.user.id = :userId AND t.dueDate IS NOT NULL AND t.status <> com.example.demo.entity.Task.Status.DONE")
+    List<LocalDateTime> findOpenDueDatesByUserId(@Param("userId") Long userId);
+    
+    // Reminder scheduler: open tasks due in (after, until], walked in (dueDate, id) order across all users
+    @Query("SELECT t.id AS id, t.user.id AS userId, t.dueDate AS dueDate FROM Task t "
+         + "WHERE t.status <> com.example.demo.entity.Task.Status.DONE AND t.dueDate <= :until "
+         + "AND (t.dueDate > :dueDate OR (t.dueDate = :dueDate AND t.id > :id)) ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskDueRow> findOpenDueAfter(@Param("dueDate") LocalDateTime dueDate, @Param("id") Long id,
+            @Param("until") LocalDateTime until, Pageable pageable);
+    
+    @Query("SELECT t.id AS id, t.user.id AS userId, t.dueDate AS dueDate FROM Task t "
+         + "WHERE t.id IN :ids AND t.dueDate IS NOT NULL AND t.status <> com.example.demo.entity.Task.Status.DONE")
+    List<TaskDueRow> findOpenDueByIds(@Param("ids") Collection<Long> ids);
+    
+    // Export: keyset batches by id, each its own short read, so no connection is held while the client drains the rows
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId AND t.id > :afterId ORDER BY t.id ASC")
+    List<TaskResponse> findExportBatch(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
     
     long countByUserAndStatus(User user, Task.Status status);
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.example.demo.repository;
+
+// Projection of the columns the text index needs, so rebuilding it does not hydrate full entities
+public interface TaskSearchText {
+    Long getId();
+    String getTitle();
+    String getDescription();
+}
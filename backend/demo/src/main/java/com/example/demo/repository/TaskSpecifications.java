@@ -0,0 +1,93 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskSearchCriteria;
+import com.example.demo.entity.Task;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Compiles TaskSearchCriteria into a single dynamic query scoped to one user
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {}
+
+    public static Specification<Task> search(Long userId, TaskSearchCriteria criteria, LocalDateTime now) {
+        return search(userId, criteria, now, null);
+    }
+
+    // textMatches, when given, are task ids already resolved from the search index and replace the LIKE scan for q
+    public static Specification<Task> search(Long userId, TaskSearchCriteria criteria, LocalDateTime now,
+            Collection<Long> textMatches) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (criteria.getPriority() != null) {
+                predicates.add(cb.equal(root.get("priority"), criteria.getPriority()));
+            }
+            if (textMatches != null) {
+                predicates.add(root.get("id").in(textMatches));
+            } else if (criteria.getQ() != null && !criteria.getQ().isBlank()) {
+                String pattern = "%" + escapeLike(criteria.getQ().trim().toLowerCase()) + "%";
+                predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("title")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("description")), pattern, '\\')
+                ));
+            }
+            if (criteria.isOverdue()) {
+                predicates.add(cb.lessThan(root.get("dueDate"), now));
+                predicates.add(cb.notEqual(root.get("status"), Task.Status.DONE));
+            }
+            if (criteria.getDueFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), criteria.getDueFrom().atStartOfDay()));
+            }
+            if (criteria.getDueTo() != null) {
+                // Inclusive of the whole dueTo day
+                predicates.add(cb.lessThan(root.get("dueDate"), criteria.getDueTo().plusDays(1).atStartOfDay()));
+            }
+
+            // The count query shares this specification but must not be ordered
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                query.orderBy(orderFor(criteria.getSort(), root, cb));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static List<Order> orderFor(TaskSearchCriteria.SortBy sort, Root<Task> root, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        if (sort == TaskSearchCriteria.SortBy.DEADLINE) {
+            // Tasks without a due date go last
+            Expression<Integer> noDueDate = cb.<Integer>selectCase()
+                .when(cb.isNull(root.get("dueDate")), 1)
+                .otherwise(0);
+            orders.add(cb.asc(noDueDate));
+            orders.add(cb.asc(root.get("dueDate")));
+        } else if (sort == TaskSearchCriteria.SortBy.PRIORITY) {
+            // Priority is stored as a string, so rank it explicitly: HIGH, MEDIUM, LOW
+            Expression<Integer> rank = cb.<Integer>selectCase()
+                .when(cb.equal(root.get("priority"), Task.Priority.HIGH), 0)
+                .when(cb.equal(root.get("priority"), Task.Priority.MEDIUM), 1)
+                .otherwise(2);
+            orders.add(cb.asc(rank));
+        }
+        orders.add(cb.desc(root.get("createdAt")));
+        orders.add(cb.desc(root.get("id")));
+        return orders;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
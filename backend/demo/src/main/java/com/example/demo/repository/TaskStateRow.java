@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Task;
+
+import java.time.LocalDateTime;
+
+// The fields the in-memory stats counters need about a task's previous state
+public interface TaskStateRow {
+    Task.Status getStatus();
+    Task.Priority getPriority();
+    LocalDateTime getDueDate();
+}
@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Task;
+
+// One cell of the per-user (status, priority) count grid
+public interface TaskStatsRow {
+    Task.Status getStatus();
+    Task.Priority getPriority();
+    long getCount();
+    long getOverdue();
+}
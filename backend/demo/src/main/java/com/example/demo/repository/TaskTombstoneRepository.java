@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TaskTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    @Query("SELECT t FROM TaskTombstone t WHERE t.userId = :userId "
+         + "AND (t.changeSeq > :changeSeq OR (t.changeSeq = :changeSeq AND t.id > :id)) "
+         + "ORDER BY t.changeSeq ASC, t.id ASC")
+    List<TaskTombstone> findChangesAfter(@Param("userId") Long userId, @Param("changeSeq") long changeSeq,
+            @Param("id") Long id, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TaskTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,67 @@
+package com.example.demo.security;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Caps in-flight requests per user. With virtual threads the request thread pool no longer bounds
+// concurrency, so without this one client could queue unbounded work on the connection pool.
+@Component
+public class UserConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    // 0 disables the limit
+    @Value("${server.per-user-concurrency.max:0}")
+    private int maxInFlight;
+
+    private final Map<Long, Integer> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Long-lived streams would permanently hold a slot
+        return maxInFlight <= 0 || request.getServletPath().equals("/api/tasks/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Long userId = principal.getId();
+        boolean[] admitted = new boolean[1];
+        inFlight.compute(userId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            admitted[0] = current < maxInFlight;
+            return admitted[0] ? current + 1 : (count == null ? null : count);
+        });
+
+        if (!admitted[0]) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many concurrent requests");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Entries are dropped at zero so the map only holds users with requests in flight
+            inFlight.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+// Authenticated user built straight from JWT claims, so no users lookup is needed per request
+public class UserPrincipal implements UserDetails {
+
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final Long id;
+    private final String email;
+
+    public UserPrincipal(Long id, String email) {
+        this.id = id;
+        this.email = email;
+    }
+
+    public Long getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AUTHORITIES;
+    }
+
+    @Override
+    public String getPassword() {
+        return ""; // No password needed for OAuth2
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.security;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-user token buckets, one per user and endpoint class (reads, writes,
+ * export/import), so one client's script cannot drain the connection pool for
+ * everyone else. Each bucket is a single AtomicLong holding the time at which
+ * it will be full again (GCRA), updated with a CAS loop, so admitting a request
+ * takes no lock. Buckets live in striped maps keyed by user; a bucket that has
+ * refilled is indistinguishable from a missing one and is swept away, so
+ * memory tracks recently active users only.
+ */
+@Component
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    enum Kind { READ, WRITE, EXPORT }
+
+    private record Limit(long intervalNanos, long toleranceNanos) {}
+
+    private static final int STRIPES = 16;
+
+    @Value("${server.per-user-rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${server.per-user-rate-limit.reads.per-second:50}")
+    private double readsPerSecond;
+
+    @Value("${server.per-user-rate-limit.reads.burst:100}")
+    private int readsBurst;
+
+    @Value("${server.per-user-rate-limit.writes.per-second:20}")
+    private double writesPerSecond;
+
+    @Value("${server.per-user-rate-limit.writes.burst:40}")
+    private int writesBurst;
+
+    @Value("${server.per-user-rate-limit.export.per-second:0.1}")
+    private double exportPerSecond;
+
+    @Value("${server.per-user-rate-limit.export.burst:3}")
+    private int exportBurst;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Kind, Limit> limits = new EnumMap<>(Kind.class);
+    private final Map<Kind, Counter> rejected = new EnumMap<>(Kind.class);
+
+    @SuppressWarnings("unchecked")
+    private final Map<Long, AtomicLong>[] stripes = new Map[STRIPES];
+
+    @PostConstruct
+    void init() {
+        limits.put(Kind.READ, limit(readsPerSecond, readsBurst));
+        limits.put(Kind.WRITE, limit(writesPerSecond, writesBurst));
+        limits.put(Kind.EXPORT, limit(exportPerSecond, exportBurst));
+        for (Kind kind : Kind.values()) {
+            rejected.put(kind, Counter.builder("http.rate.limited")
+                .description("Requests rejected by the per-user rate limit")
+                .tag("class", kind.name().toLowerCase())
+                .register(meterRegistry));
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Kind kind = classify(request);
+        long waitNanos = acquire(principal.getId(), kind, System.nanoTime());
+        if (waitNanos > 0) {
+            rejected.get(kind).increment();
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // Takes a token; returns 0 when admitted, otherwise how long until the next token is due
+    long acquire(Long userId, Kind kind, long now) {
+        Limit limit = limits.get(kind);
+        AtomicLong bucket = stripe(userId).computeIfAbsent(key(userId, kind), k -> new AtomicLong(now));
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + limit.intervalNanos();
+            long excess = next - now - limit.toleranceNanos();
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A request racing the sweep can lose its bucket and start over with a full one; that costs at most one burst
+    @Scheduled(fixedDelayString = "${server.per-user-rate-limit.sweep-interval-ms:10000}")
+    public void evictIdle() {
+        if (!enabled) {
+            return;
+        }
+        for (Map<Long, AtomicLong> stripe : stripes) {
+            long now = System.nanoTime();
+            stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    // Export and import stream whole task lists, so they share their own, much smaller allowance
+    private static Kind classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals("/api/tasks/export") || path.equals("/api/tasks/import")) {
+            return Kind.EXPORT;
+        }
+        String method = request.getMethod();
+        return method.equals("GET") || method.equals("HEAD") ? Kind.READ : Kind.WRITE;
+    }
+
+    private Map<Long, AtomicLong> stripe(Long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 60) & (STRIPES - 1)];
+    }
+
+    private static long key(Long userId, Kind kind) {
+        return userId << 2 | kind.ordinal();
+    }
+
+    private static Limit limit(double perSecond, int burst) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+        return new Limit(interval, interval * Math.max(burst, 1));
+    }
+}
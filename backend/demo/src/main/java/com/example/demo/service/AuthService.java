@@ -2,7 +2,10 @@ package com.example.demo.service;
 
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.UserPrincipal;
 import com.example.demo.util.JwtUtil;
+import com.example.demo.util.ReplicaRead;
+import com.example.demo.util.TokenClaims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
@@ -19,6 +22,9 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private TaskShardDirectory taskShardDirectory;
+    
     public String processOAuth2User(OAuth2User oAuth2User) {
         Map<String, Object> attributes = oAuth2User.getAttributes();
         
@@ -40,16 +46,34 @@ public class AuthService {
             // Create new user
             user = new User(email, name, googleId, profilePicture);
             userRepository.save(user);
+            taskShardDirectory.assignNewUser(user.getId());
         }
         
         return jwtUtil.generateToken(user.getEmail(), user.getId());
     }
     
     public User getUserFromToken(String token) {
-        if (jwtUtil.validateToken(token)) {
-            String email = jwtUtil.getEmailFromToken(token);
-            return userRepository.findByEmail(email).orElse(null);
+        TokenClaims claims = jwtUtil.parseToken(token);
+        if (claims == null) {
+            return null;
+        }
+        return userRepository.findByEmail(claims.getEmail()).orElse(null);
+    }
+    
+    // Resolves the request principal from the token alone; only tokens without a userId claim hit the database
+    public UserPrincipal getPrincipalFromToken(String token) {
+        TokenClaims claims = jwtUtil.parseToken(token);
+        if (claims == null || claims.getEmail() == null) {
+            return null;
+        }
+        if (claims.getUserId() != null) {
+            return new UserPrincipal(claims.getUserId(), claims.getEmail());
+        }
+        // A user created moments ago may not have reached the replica yet, so a miss is retried on the primary
+        Optional<User> user = ReplicaRead.run(() -> userRepository.findByEmail(claims.getEmail()));
+        if (user.isEmpty()) {
+            user = userRepository.findByEmail(claims.getEmail());
         }
-        return null;
+        return user.map(found -> new UserPrincipal(found.getId(), found.getEmail())).orElse(null);
     }
 }
\ No newline at end of file
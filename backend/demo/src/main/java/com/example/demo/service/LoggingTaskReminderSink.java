@@ -0,0 +1,21 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.TaskReminder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+// Local sink that only logs reminders; registered by TaskReminderConfig when no other TaskReminderSink bean exists
+public class LoggingTaskReminderSink implements TaskReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingTaskReminderSink.class);
+
+    @Override
+    public void deliver(List<TaskReminder> reminders) {
+        for (TaskReminder reminder : reminders) {
+            log.info("Reminder {} for task {} (user {}), due {}",
+                reminder.getType(), reminder.getTaskId(), reminder.getUserId(), reminder.getDueDate());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for TaskService reads, bounded by the number of tasks
+ * it holds and by TTL. Entries are keyed by the user's TaskVersions stamp, so
+ * a committed write makes every cached read for that user unreachable at once.
+ * A read that raced with the write can only populate the old version's key.
+ * TaskVersions only sees this instance's writes, so with several instances a
+ * write elsewhere goes unseen until the TTL: the cache is off by default and
+ * should only be enabled for single-instance deployments.
+ */
+@Component
+public class TaskCache {
+
+    @Autowired
+    private TaskVersions taskVersions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tasks.cache.enabled:false}")
+    private boolean enabled;
+
+    // A list entry weighs as many tasks as it holds, so one huge task list cannot stand in for a single entry
+    @Value("${tasks.cache.max-tasks:200000}")
+    private long maxTasks;
+
+    // Also bounds how stale the time-dependent overdue flag can get
+    @Value("${tasks.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private Cache<Key, Object> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .maximumWeight(maxTasks)
+            .weigher((Key key, Object value) -> value instanceof Collection<?> tasks ? Math.max(1, tasks.size()) : 1)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String kind, Object arg, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        // Read the version before loading so a concurrent write can never be cached under the new version
+        Key key = new Key(userId, taskVersions.version(userId), kind, arg);
+        return (T) cache.get(key, k -> loader.get());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public Cache<?, ?> nativeCache() {
+        return cache;
+    }
+
+    private static final class Key {
+        private final Long userId;
+        private final long version;
+        private final String kind;
+        private final Object arg;
+
+        Key(Long userId, long version, String kind, Object arg) {
+            this.userId = userId;
+            this.version = version;
+            this.kind = kind;
+            this.arg = arg;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return version == other.version && userId.equals(other.userId)
+                && kind.equals(other.kind) && Objects.equals(arg, other.arg);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, version, kind, arg);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskEvent;
+import com.example.demo.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of task events to each user's open SSE connections.
+ * Every subscriber has a bounded buffer; when a slow client falls behind the
+ * oldest events are dropped, so a stuck connection never holds up the
+ * publisher or other subscribers.
+ */
+@Component
+public class TaskEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEventHub.class);
+
+    private static final Pending HEARTBEAT = new Pending(null, null, null);
+    private static final Pending OVERFLOW = new Pending(null, "overflow", "Events were dropped; refetch tasks");
+
+    @Value("${tasks.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${tasks.stream.max-connections-per-user:10}")
+    private int maxConnectionsPerUser;
+
+    @Value("${tasks.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${tasks.stream.sender-threads:4}")
+    private int senderThreads;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong();
+    private ExecutorService sender;
+
+    @PostConstruct
+    void start() {
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-event-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        sender.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(sub -> sub.emitter.complete()));
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        List<Subscriber> evicted = new ArrayList<>(1);
+        // Added under the map's lock for the user, so a concurrent remove cannot drop the set this lands in
+        subscribers.compute(userId, (id, set) -> {
+            if (set == null) {
+                set = new CopyOnWriteArraySet<>();
+            }
+            set.add(subscriber);
+            // Too many tabs open: close the oldest connection
+            if (set.size() > maxConnectionsPerUser) {
+                Subscriber oldest = set.iterator().next();
+                set.remove(oldest);
+                evicted.add(oldest);
+            }
+            return set;
+        });
+        // Completed outside compute: its completion callback calls remove, which must not re-enter the map
+        evicted.forEach(oldest -> oldest.emitter.complete());
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    /** Queues an event for the user's connections once the current transaction commits. */
+    public void publish(Long userId, TaskEvent event) {
+        if (!subscribers.containsKey(userId)) {
+            return;
+        }
+        AfterCommit.run(() -> dispatch(userId, event));
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    public int connectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Keeps idle connections alive through proxies and detects dead ones
+    @Scheduled(fixedDelayString = "${tasks.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                // Connections with queued events are not idle
+                if (!subscriber.hasPending()) {
+                    subscriber.offer(HEARTBEAT);
+                    schedule(subscriber);
+                }
+            }
+        }
+    }
+
+    private void dispatch(Long userId, TaskEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        Pending pending = new Pending(Long.toString(eventIds.incrementAndGet()),
+            event.getType().name().toLowerCase(), event);
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offer(pending);
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Pending next;
+            while ((next = subscriber.poll()) != null) {
+                // Builders are single-use, so each subscriber gets its own
+                SseEmitter.SseEventBuilder sse;
+                if (next == HEARTBEAT) {
+                    sse = SseEmitter.event().comment("ping");
+                } else if (next == OVERFLOW) {
+                    sse = SseEmitter.event().name(next.name).data(next.data);
+                } else {
+                    sse = SseEmitter.event().id(next.id).name(next.name).data(next.data);
+                }
+                subscriber.emitter.send(sse);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping task event subscriber for user {}: {}", subscriber.userId, e.getMessage());
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event may have arrived between the last poll and releasing the flag
+        if (subscriber.hasPending()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class Pending {
+        private final String id;
+        private final String name;
+        private final Object data;
+
+        Pending(String id, String name, Object data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Pending> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private boolean overflowed;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(Pending event) {
+            if (buffer.size() >= bufferSize) {
+                buffer.pollFirst();
+                overflowed = true;
+            }
+            buffer.addLast(event);
+        }
+
+        synchronized Pending poll() {
+            // Tell the client it missed events and should refetch before replaying the rest
+            if (overflowed) {
+                overflowed = false;
+                return OVERFLOW;
+            }
+            return buffer.pollFirst();
+        }
+
+        synchronized boolean hasPending() {
+            return overflowed || !buffer.isEmpty();
+        }
+    }
+}
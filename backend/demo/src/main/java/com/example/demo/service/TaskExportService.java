@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskResponse;
+import com.example.demo.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes all of a user's tasks to an output stream as NDJSON or CSV. Tasks are
+ * read in id order in keyset batches, each in its own short read, and a batch
+ * is written only after its read has returned the connection. A slow client
+ * therefore holds no transaction or pooled connection, and memory stays flat
+ * regardless of how many tasks the user has. The export is not a snapshot:
+ * each task appears at most once, but tasks written while it runs may or may
+ * not be included.
+ */
+@Service
+public class TaskExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+
+        public String getExtension() { return extension; }
+    }
+
+    static final String[] CSV_COLUMNS = {
+        "id", "title", "description", "dueDate", "priority", "status", "createdAt", "updatedAt"
+    };
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tasks.export.batch-size:500}")
+    private int batchSize;
+
+    public void export(Long userId, Format format, OutputStream out) throws IOException {
+        if (format == Format.NDJSON) {
+            writeNdjson(userId, out);
+        } else {
+            writeCsv(userId, out);
+        }
+    }
+
+    private void writeNdjson(Long userId, OutputStream out) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        ObjectWriter writer = objectMapper.writerFor(TaskResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            forEachTask(userId, task -> {
+                writer.writeValue(generator, task.markOverdue(now));
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private void writeCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", CSV_COLUMNS));
+        writer.write("\r\n");
+        forEachTask(userId, task -> {
+            writer.write(String.valueOf(task.getId()));
+            writer.write(',');
+            writer.write(csvField(task.getTitle()));
+            writer.write(',');
+            writer.write(csvField(task.getDescription()));
+            writer.write(',');
+            writer.write(csvField(task.getDueDate()));
+            writer.write(',');
+            writer.write(csvField(task.getPriority()));
+            writer.write(',');
+            writer.write(csvField(task.getStatus()));
+            writer.write(',');
+            writer.write(csvField(task.getCreatedAt()));
+            writer.write(',');
+            writer.write(csvField(task.getUpdatedAt()));
+            writer.write("\r\n");
+        });
+        writer.flush();
+    }
+
+    private interface RowWriter {
+        void write(TaskResponse task) throws IOException;
+    }
+
+    // Ids only grow, so "after the last id written" resumes exactly where the previous batch stopped
+    private void forEachTask(Long userId, RowWriter rows) throws IOException {
+        long afterId = 0;
+        List<TaskResponse> batch;
+        do {
+            batch = taskRepository.findExportBatch(userId, afterId, PageRequest.of(0, batchSize));
+            for (TaskResponse task : batch) {
+                rows.write(task);
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling embedded quotes
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
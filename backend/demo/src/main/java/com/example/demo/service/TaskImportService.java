@@ -0,0 +1,202 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskImportResponse;
+import com.example.demo.dto.TaskRequest;
+import com.example.demo.entity.Task;
+import com.example.demo.util.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports tasks from an NDJSON or CSV upload while it is still arriving.
+ * Records are parsed one at a time, validated against the TaskRequest
+ * constraints and inserted in chunks of tasks.import.chunk-size, each in its
+ * own transaction. The next chunk is not read until the previous one has
+ * committed, so a fast client is held back by the database rather than
+ * buffered in memory. Bad records are reported by line and skipped.
+ */
+@Service
+public class TaskImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportService.class);
+
+    private record Row(long line, TaskRequest request) {}
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${tasks.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${tasks.import.max-errors:1000}")
+    private int maxErrors;
+
+    public TaskImportResponse importTasks(Long userId, Format format, InputStream in) throws IOException {
+        TaskImportResponse report = new TaskImportResponse();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == Format.NDJSON) {
+            readNdjson(userId, reader, chunk, report);
+        } else {
+            readCsv(userId, reader, chunk, report);
+        }
+        flush(userId, chunk, report);
+        return report;
+    }
+
+    private void readNdjson(Long userId, BufferedReader reader, List<Row> chunk, TaskImportResponse report) throws IOException {
+        ObjectReader taskReader = objectMapper.readerFor(TaskRequest.class);
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                accept(userId, new Row(line, taskReader.readValue(text)), chunk, report);
+            } catch (JsonProcessingException e) {
+                fail(report, line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    // The header row names the columns; unknown ones (such as the id and timestamps of an export) are ignored
+    private void readCsv(Long userId, BufferedReader reader, List<Row> chunk, TaskImportResponse report) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = nextRecord(csv, report);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("title")) {
+            fail(report, csv.getRecordLine(), "Header must include a title column");
+            return;
+        }
+
+        List<String> record;
+        while ((record = nextRecord(csv, report)) != null) {
+            long line = csv.getRecordLine();
+            try {
+                TaskRequest request = new TaskRequest();
+                request.setTitle(column(record, columns, "title"));
+                request.setDescription(column(record, columns, "description"));
+                String dueDate = column(record, columns, "dueDate");
+                request.setDueDate(dueDate == null ? null : LocalDateTime.parse(dueDate));
+                String priority = column(record, columns, "priority");
+                request.setPriority(priority == null ? null : Task.Priority.valueOf(priority.toUpperCase(Locale.ROOT)));
+                String status = column(record, columns, "status");
+                request.setStatus(status == null ? null : Task.Status.valueOf(status.toUpperCase(Locale.ROOT)));
+                accept(userId, new Row(line, request), chunk, report);
+            } catch (DateTimeParseException e) {
+                fail(report, line, "Invalid dueDate: " + e.getParsedString());
+            } catch (IllegalArgumentException e) {
+                fail(report, line, "Invalid priority or status");
+            }
+        }
+    }
+
+    // A malformed record (an unterminated quote) swallows the rest of the input, so reading stops there
+    private List<String> nextRecord(CsvReader csv, TaskImportResponse report) throws IOException {
+        try {
+            return csv.next();
+        } catch (CsvReader.MalformedCsvException e) {
+            fail(report, csv.getRecordLine(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void accept(Long userId, Row row, List<Row> chunk, TaskImportResponse report) {
+        Set<ConstraintViolation<TaskRequest>> violations = validator.validate(row.request());
+        if (!violations.isEmpty()) {
+            fail(report, row.line(), violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+            return;
+        }
+        chunk.add(row);
+        if (chunk.size() == chunkSize) {
+            flush(userId, chunk, report);
+        }
+    }
+
+    // Commits one chunk; if the database rejects it, retries row by row so only the offending lines fail. A move of the
+    // user's tasks ends the import instead
+    private void flush(Long userId, List<Row> chunk, TaskImportResponse report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            taskService.createTasks(userId, chunk.stream().map(Row::request).toList());
+            report.setImported(report.getImported() + chunk.size());
+        } catch (TaskShardMovingException e) {
+            // Every further chunk would meet the same move; the chunks committed so far go along with it
+            throw new TaskShardMovingException("Tasks are being moved after " + report.getImported()
+                + " rows were imported, retry the rest shortly", e.getRetryAfterSeconds());
+        } catch (RuntimeException e) {
+            log.warn("Import chunk for user {} failed, retrying {} rows one by one: {}", userId, chunk.size(), e.getMessage());
+            for (Row row : chunk) {
+                try {
+                    taskService.createTasks(userId, List.of(row.request()));
+                    report.setImported(report.getImported() + 1);
+                } catch (RuntimeException rowError) {
+                    fail(report, row.line(), "Rejected by the database");
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private void fail(TaskImportResponse report, long line, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxErrors) {
+            report.getErrors().add(new TaskImportResponse.LineError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
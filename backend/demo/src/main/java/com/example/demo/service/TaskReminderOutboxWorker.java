@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.TaskReminder;
+import com.example.demo.repository.TaskReminderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Drains the reminder outbox one locked batch per run; rows are deleted only after the sink accepted them
+@Component
+public class TaskReminderOutboxWorker {
+
+    @Autowired
+    private TaskReminderRepository reminderRepository;
+
+    @Autowired
+    private TaskReminderSink sink;
+
+    @Value("${tasks.reminders.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tasks.reminders.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${tasks.reminders.outbox.drain-interval-ms:1000}")
+    @Transactional
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+        List<TaskReminder> batch = reminderRepository.findDeliveryBatch(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return;
+        }
+        sink.deliver(batch);
+        reminderRepository.deleteAllInBatch(batch);
+    }
+}
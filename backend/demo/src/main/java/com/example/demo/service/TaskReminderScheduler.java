@@ -0,0 +1,320 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TaskShards;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskReminder;
+import com.example.demo.repository.TaskDueRow;
+import com.example.demo.repository.TaskReminderRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.util.AfterCommit;
+import com.example.demo.util.TaskShard;
+import com.example.demo.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Arms "due soon" and "overdue" timers for open tasks on a hierarchical timing
+ * wheel and writes fired reminders to the task_reminder_outbox table, which
+ * TaskReminderOutboxWorker delivers. Due dates are loaded ahead of time in
+ * keyset batches, and TaskService re-arms or cancels a task's timers as it
+ * changes. Timers live in this process only, so the scheduler is off by
+ * default and meant for single-instance deployments. With task shards, due
+ * dates are loaded from every shard and merged; the outbox stays on the primary.
+ */
+@Component
+public class TaskReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskReminderScheduler.class);
+
+    private static final int WHEEL_LEVELS = 4;
+
+    private record Reminder(Long taskId, Long userId, LocalDateTime dueDate, TaskReminder.Type type) {}
+
+    private static final class TaskTimers {
+        private TimingWheel.Timer<Reminder> dueSoon;
+        private TimingWheel.Timer<Reminder> overdue;
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskReminderRepository reminderRepository;
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Autowired
+    private TaskShardDirectory shardDirectory;
+
+    @Value("${tasks.reminders.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tasks.reminders.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${tasks.reminders.due-soon-minutes:60}")
+    private long dueSoonMinutes;
+
+    @Value("${tasks.reminders.lookahead-minutes:1440}")
+    private long lookaheadMinutes;
+
+    @Value("${tasks.reminders.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    private final Clock clock = Clock.systemDefaultZone();
+
+    // Everything below is guarded by this
+    private TimingWheel<Reminder> wheel;
+    private final Map<Long, TaskTimers> timers = new HashMap<>();
+    private long startedAtMillis;
+
+    // Keyset position of the incremental load, and the furthest due date it has been asked to reach
+    private LocalDateTime loadedDueDate;
+    private long loadedId;
+    private LocalDateTime armedUntil;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        startedAtMillis = clock.millis();
+        wheel = new TimingWheel<>(tickMillis, WHEEL_LEVELS, startedAtMillis);
+        // Reminders that came due while the application was down are not replayed
+        loadedDueDate = LocalDateTime.now(clock);
+        loadedId = Long.MAX_VALUE;
+        armedUntil = loadedDueDate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Re-arms a task's timers after its due date or status changed; a null due date just cancels. */
+    public void onChange(Long taskId, Long userId, LocalDateTime dueDate, Task.Status status) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> rearm(taskId, userId, dueDate, status));
+    }
+
+    /** Cancels the timers of tasks that were deleted or completed. */
+    public void cancel(Collection<Long> taskIds) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                for (Long taskId : taskIds) {
+                    cancelNow(taskId);
+                }
+            }
+        });
+    }
+
+    /** Re-reads the due dates of tasks changed in bulk, where the new values are not known up front. */
+    public void refresh(Collection<Long> taskIds) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> ids = List.copyOf(taskIds);
+        AfterCommit.run(() -> {
+            Map<Long, TaskDueRow> rows = new HashMap<>();
+            for (TaskDueRow row : taskRepository.findOpenDueByIds(ids)) {
+                rows.put(row.getId(), row);
+            }
+            for (Long taskId : ids) {
+                TaskDueRow row = rows.get(taskId);
+                if (row == null) {
+                    rearm(taskId, null, null, Task.Status.DONE);
+                } else {
+                    rearm(taskId, row.getUserId(), row.getDueDate(), null);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.reminders.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        List<Reminder> fired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(clock.millis(), reminder -> {
+                fired.add(reminder);
+                TaskTimers task = timers.get(reminder.taskId());
+                if (task != null) {
+                    if (reminder.type() == TaskReminder.Type.DUE_SOON) {
+                        task.dueSoon = null;
+                    } else {
+                        task.overdue = null;
+                    }
+                    if (task.dueSoon == null && task.overdue == null) {
+                        timers.remove(reminder.taskId());
+                    }
+                }
+            });
+        }
+        int from = 0;
+        try {
+            for (; from < fired.size(); from += loadBatchSize) {
+                emit(fired.subList(from, Math.min(fired.size(), from + loadBatchSize)));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Writing reminders failed, {} will retry: {}", fired.size() - from, e.getMessage());
+            retry(fired.subList(from, fired.size()));
+        }
+        try {
+            load();
+        } catch (DataAccessException e) {
+            log.warn("Loading upcoming due dates failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized int pendingTimers() {
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    // Writes still-valid reminders to the outbox; the task may have changed or gone since it was armed
+    private void emit(List<Reminder> reminders) {
+        Map<String, Set<Long>> idsByShard = new HashMap<>();
+        for (Reminder reminder : reminders) {
+            idsByShard.computeIfAbsent(shardDirectory.shardOf(reminder.userId()), shard -> new HashSet<>())
+                .add(reminder.taskId());
+        }
+        Map<Long, LocalDateTime> current = new HashMap<>();
+        idsByShard.forEach((shard, ids) -> {
+            for (TaskDueRow row : TaskShard.run(shard, () -> taskRepository.findOpenDueByIds(ids))) {
+                current.put(row.getId(), row.getDueDate());
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<TaskReminder> outbox = new ArrayList<>(reminders.size());
+        for (Reminder reminder : reminders) {
+            if (Objects.equals(current.get(reminder.taskId()), reminder.dueDate())) {
+                outbox.add(new TaskReminder(reminder.taskId(), reminder.userId(), reminder.type(), reminder.dueDate(), now));
+            }
+        }
+        if (!outbox.isEmpty()) {
+            reminderRepository.saveAll(outbox);
+        }
+    }
+
+    // Pulls the next batch of upcoming due dates into the wheel
+    private void load() {
+        LocalDateTime until = LocalDateTime.now(clock).plusMinutes(Math.max(lookaheadMinutes, dueSoonMinutes));
+        LocalDateTime afterDueDate;
+        long afterId;
+        synchronized (this) {
+            if (!loadedDueDate.isBefore(until)) {
+                return;
+            }
+            // Changes committed from here on are armed directly, since this query may not see them
+            if (until.isAfter(armedUntil)) {
+                armedUntil = until;
+            }
+            afterDueDate = loadedDueDate;
+            afterId = loadedId;
+        }
+
+        List<TaskDueRow> rows = loadDueAfter(afterDueDate, afterId, until);
+
+        synchronized (this) {
+            for (TaskDueRow row : rows) {
+                // A change that was armed meanwhile is newer than this read
+                if (!timers.containsKey(row.getId())) {
+                    arm(row.getId(), row.getUserId(), row.getDueDate(), startedAtMillis);
+                }
+            }
+            if (rows.size() < loadBatchSize) {
+                loadedDueDate = until;
+                loadedId = Long.MAX_VALUE;
+            } else {
+                TaskDueRow last = rows.get(rows.size() - 1);
+                loadedDueDate = last.getDueDate();
+                loadedId = last.getId();
+            }
+        }
+    }
+
+    // The first batch after the keyset position across all shards: each shard's own first batch, merged and cut
+    private List<TaskDueRow> loadDueAfter(LocalDateTime afterDueDate, long afterId, LocalDateTime until) {
+        PageRequest page = PageRequest.of(0, loadBatchSize);
+        if (!taskShards.isSharded()) {
+            return taskRepository.findOpenDueAfter(afterDueDate, afterId, until, page);
+        }
+        List<TaskDueRow> rows = new ArrayList<>();
+        for (String shard : taskShards.names()) {
+            rows.addAll(TaskShard.run(shard, () -> taskRepository.findOpenDueAfter(afterDueDate, afterId, until, page)));
+        }
+        rows.sort(Comparator.comparing(TaskDueRow::getDueDate).thenComparing(TaskDueRow::getId));
+        return rows.size() > loadBatchSize ? rows.subList(0, loadBatchSize) : rows;
+    }
+
+    private synchronized void rearm(Long taskId, Long userId, LocalDateTime dueDate, Task.Status status) {
+        cancelNow(taskId);
+        // Due dates past armedUntil are picked up by a later load
+        if (dueDate != null && status != Task.Status.DONE && !dueDate.isAfter(armedUntil)) {
+            arm(taskId, userId, dueDate, Long.MIN_VALUE);
+        }
+    }
+
+    private synchronized void retry(List<Reminder> reminders) {
+        long at = clock.millis() + tickMillis;
+        for (Reminder reminder : reminders) {
+            TaskTimers task = timers.computeIfAbsent(reminder.taskId(), id -> new TaskTimers());
+            if (reminder.type() == TaskReminder.Type.DUE_SOON && task.dueSoon == null) {
+                task.dueSoon = wheel.schedule(at, reminder);
+            } else if (reminder.type() == TaskReminder.Type.OVERDUE && task.overdue == null) {
+                task.overdue = wheel.schedule(at, reminder);
+            }
+        }
+    }
+
+    // Instants before notBefore are skipped; a task that is already overdue gets no due-soon reminder
+    private void arm(Long taskId, Long userId, LocalDateTime dueDate, long notBefore) {
+        long dueAt = dueDate.atZone(clock.getZone()).toInstant().toEpochMilli();
+        long dueSoonAt = dueAt - dueSoonMinutes * 60_000;
+
+        TaskTimers task = new TaskTimers();
+        if (dueAt > clock.millis() && dueSoonAt >= notBefore) {
+            task.dueSoon = wheel.schedule(dueSoonAt, new Reminder(taskId, userId, dueDate, TaskReminder.Type.DUE_SOON));
+        }
+        if (dueAt >= notBefore) {
+            task.overdue = wheel.schedule(dueAt, new Reminder(taskId, userId, dueDate, TaskReminder.Type.OVERDUE));
+        }
+        if (task.dueSoon != null || task.overdue != null) {
+            timers.put(taskId, task);
+        }
+    }
+
+    private void cancelNow(Long taskId) {
+        TaskTimers task = timers.remove(taskId);
+        if (task != null) {
+            wheel.cancel(task.dueSoon);
+            wheel.cancel(task.overdue);
+        }
+    }
+}
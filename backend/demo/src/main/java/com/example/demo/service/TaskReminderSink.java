@@ -0,0 +1,10 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.TaskReminder;
+
+import java.util.List;
+
+// Destination for reminders drained from the outbox; a failure leaves the batch in the outbox for retry
+public interface TaskReminderSink {
+    void deliver(List<TaskReminder> reminders);
+}
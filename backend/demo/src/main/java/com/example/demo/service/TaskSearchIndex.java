@@ -0,0 +1,280 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Task;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.TaskSearchText;
+import com.example.demo.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over task titles and descriptions, one per user.
+ * A user's index is built from TaskRepository on their first search and then
+ * kept current by TaskService on every create, update and delete, each change
+ * applied once its write has committed. Single-instance only: writes made on
+ * another instance are not seen until the user's index is evicted.
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${tasks.search-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tasks.search-index.max-users:5000}")
+    private int maxUsers;
+
+    private final Map<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+    private TransactionTemplate loader;
+
+    @PostConstruct
+    void init() {
+        loader = new TransactionTemplate(transactionManager);
+        loader.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loader.setReadOnly(true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns ids of the user's tasks matching every query token as a prefix,
+     * best match first. Title hits outrank description hits and whole-word
+     * hits outrank prefix hits; ties go to the newer task.
+     */
+    public List<Long> search(Long userId, String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return indexFor(userId).search(tokens, limit);
+    }
+
+    // Applied after commit, so a rolled-back write never reaches the index
+    public void index(Long userId, Task task) {
+        if (!enabled) {
+            return;
+        }
+        Long taskId = task.getId();
+        String title = task.getTitle();
+        String description = task.getDescription();
+        AfterCommit.run(() -> {
+            UserIndex index = indexes.get(userId);
+            // Users whose index is not loaded yet will pick the task up on rebuild
+            if (index != null) {
+                index.put(taskId, title, description);
+            }
+        });
+    }
+
+    public void remove(Long userId, Long taskId) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            UserIndex index = indexes.get(userId);
+            if (index != null) {
+                index.remove(taskId);
+            }
+        });
+    }
+
+    public void invalidate(Long userId) {
+        indexes.remove(userId);
+    }
+
+    private UserIndex indexFor(Long userId) {
+        UserIndex index = indexes.get(userId);
+        if (index != null) {
+            return index;
+        }
+        if (indexes.size() >= maxUsers) {
+            evictOne();
+        }
+        // Publish the index write-locked so concurrent searches and writes wait for the load. A write committing before
+        // it is published is in the rows loaded below, read in a transaction of their own that starts after publication
+        // rather than in the caller's older snapshot; one committing later finds the index and applies its change
+        // once the load is done
+        UserIndex created = new UserIndex();
+        created.lock.writeLock().lock();
+        try {
+            index = indexes.putIfAbsent(userId, created);
+            if (index != null) {
+                return index;
+            }
+            created.load(loader.execute(status -> taskRepository.findSearchTextByUserId(userId)));
+            return created;
+        } catch (RuntimeException e) {
+            indexes.remove(userId, created);
+            throw e;
+        } finally {
+            created.lock.writeLock().unlock();
+        }
+    }
+
+    private void evictOne() {
+        Iterator<Long> it = indexes.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class UserIndex {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // term -> (taskId -> weight); sorted so prefix lookups are a range scan
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Set<String>> termsByTask = new HashMap<>();
+
+        // Caller holds the write lock
+        void load(List<TaskSearchText> rows) {
+            for (TaskSearchText row : rows) {
+                addLocked(row.getId(), row.getTitle(), row.getDescription());
+            }
+        }
+
+        void put(Long taskId, String title, String description) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(taskId);
+                addLocked(taskId, title, description);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long taskId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(taskId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Long> search(List<String> tokens, int limit) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Integer> scores = null;
+                for (String token : tokens) {
+                    Map<Long, Integer> tokenScores = new HashMap<>();
+                    for (Map.Entry<String, Map<Long, Integer>> entry : postings.tailMap(token, true).entrySet()) {
+                        if (!entry.getKey().startsWith(token)) {
+                            break;
+                        }
+                        int multiplier = entry.getKey().length() == token.length() ? 2 : 1;
+                        for (Map.Entry<Long, Integer> posting : entry.getValue().entrySet()) {
+                            tokenScores.merge(posting.getKey(), posting.getValue() * multiplier, Math::max);
+                        }
+                    }
+                    if (scores == null) {
+                        scores = tokenScores;
+                    } else {
+                        Map<Long, Integer> merged = new HashMap<>();
+                        for (Map.Entry<Long, Integer> e : scores.entrySet()) {
+                            Integer other = tokenScores.get(e.getKey());
+                            if (other != null) {
+                                merged.put(e.getKey(), e.getValue() + other);
+                            }
+                        }
+                        scores = merged;
+                    }
+                    if (scores.isEmpty()) {
+                        return List.of();
+                    }
+                }
+
+                List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+                ranked.sort((a, b) -> {
+                    int byScore = Integer.compare(b.getValue(), a.getValue());
+                    return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+                });
+                List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+                for (int i = 0; i < ranked.size() && i < limit; i++) {
+                    ids.add(ranked.get(i).getKey());
+                }
+                return ids;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void addLocked(Long taskId, String title, String description) {
+            Map<String, Integer> weights = new HashMap<>();
+            for (String term : tokenize(title)) {
+                weights.merge(term, TITLE_WEIGHT, Math::max);
+            }
+            for (String term : tokenize(description)) {
+                weights.merge(term, DESCRIPTION_WEIGHT, Math::max);
+            }
+            for (Map.Entry<String, Integer> e : weights.entrySet()) {
+                postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(taskId, e.getValue());
+            }
+            termsByTask.put(taskId, new HashSet<>(weights.keySet()));
+        }
+
+        private void removeLocked(Long taskId) {
+            Set<String> terms = termsByTask.remove(taskId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(taskId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,16 +1,44 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.TaskChangesResponse;
+import com.example.demo.dto.TaskEvent;
+import com.example.demo.dto.TaskPageResponse;
 import com.example.demo.dto.TaskRequest;
 import com.example.demo.dto.TaskResponse;
+import com.example.demo.dto.TaskSearchCriteria;
+import com.example.demo.dto.TaskSearchResponse;
+import com.example.demo.dto.TaskStatsResponse;
 import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskTombstone;
 import com.example.demo.model.User;
+import com.example.demo.repository.TaskChangeRow;
+import com.example.demo.repository.TaskChangeSeqRepository;
 import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.TaskSpecifications;
+import com.example.demo.repository.TaskStatsRow;
+import com.example.demo.repository.TaskTombstoneRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.util.ReplicaRead;
+import com.example.demo.util.SyncCursor;
+import com.example.demo.util.TaskCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,29 +50,156 @@ public class TaskService {
     @Autowired
     private UserRepository userRepository;
 
-    public List<TaskResponse> getAllTasksByUser(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return taskRepository.findByUserOrderByCreatedAtDesc(user)
-            .stream()
-            .map(TaskResponse::new)
-            .collect(Collectors.toList());
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Value("${tasks.search-index.candidate-margin:200}")
+    private int searchCandidateMargin;
+
+    @Value("${tasks.search-index.max-candidates:10000}")
+    private int searchMaxCandidates;
+
+    @Autowired
+    private TaskStatsCounters statsCounters;
+
+    @Autowired
+    private TaskVersions taskVersions;
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TaskChangeSeqRepository changeSeqRepository;
+
+    @Value("${tasks.changes.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    @Autowired
+    private TaskEventHub eventHub;
+
+    // Keyed by TaskVersions, so the version bump in every mutation below is also the cache invalidation
+    @Autowired
+    private TaskCache taskCache;
+
+    @Autowired
+    private TaskShardDirectory shardDirectory;
+
+    @Autowired
+    private TaskReminderScheduler reminderScheduler;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int bulkChunkSize;
+
+    // ETag for the user's task collections, changing whenever any of their tasks does; null unless tasks.etag.enabled
+    public String getTasksEtag(Long userId) {
+        return taskVersions.isEtagsEnabled() ? taskVersions.etag(userId) : null;
     }
 
-    public List<TaskResponse> getTasksByStatus(String userEmail, Task.Status status) {
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return taskRepository.findByUserAndStatusOrderByCreatedAtDesc(user, status)
-            .stream()
-            .map(TaskResponse::new)
-            .collect(Collectors.toList());
+    // The cached reads below may be served by the read replica (see ReadReplicaRoutingDataSource).
+    // Cached lists are shared by every request that hits them, so they are handed out unmodifiable.
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getAllTasksByUser(Long userId) {
+        return taskCache.get(userId, "all", null,
+            () -> List.copyOf(ReplicaRead.run(() -> markOverdue(taskRepository.findResponsesByUserId(userId)))));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getTasksByStatus(Long userId, Task.Status status) {
+        return taskCache.get(userId, "status", status,
+            () -> List.copyOf(ReplicaRead.run(() -> markOverdue(taskRepository.findResponsesByUserIdAndStatus(userId, status)))));
+    }
+
+    public TaskPageResponse getTaskPage(Long userId, Task.Status status, String cursor, int limit) {
+        // Fetch one extra row to learn whether another page exists without a count query
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<TaskResponse> tasks;
+        if (cursor == null || cursor.isEmpty()) {
+            tasks = status == null
+                ? taskRepository.findFirstPage(userId, pageable)
+                : taskRepository.findFirstPageByStatus(userId, status, pageable);
+        } else {
+            TaskCursor after = TaskCursor.decode(cursor);
+            tasks = status == null
+                ? taskRepository.findPageAfter(userId, after.getCreatedAt(), after.getId(), pageable)
+                : taskRepository.findPageAfterByStatus(userId, status, after.getCreatedAt(), after.getId(), pageable);
+        }
+
+        String next = null;
+        if (tasks.size() > limit) {
+            tasks = tasks.subList(0, limit);
+            TaskResponse last = tasks.get(limit - 1);
+            next = new TaskCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new TaskPageResponse(markOverdue(tasks), next);
+    }
+
+    /**
+     * With the search index on, q keeps only the index's best-ranked matches:
+     * enough to fill this page plus a margin for rows the other filters drop,
+     * and never more than max-candidates, so the id list stays bounded. Counts
+     * and pages are exact whenever the query matches fewer tasks than that.
+     */
+    @Transactional(readOnly = true)
+    public TaskSearchResponse searchTasks(Long userId, TaskSearchCriteria criteria, int size) {
+        Pageable pageable = PageRequest.of(Math.max(0, criteria.getPage()), size);
+
+        List<Long> textMatches = null;
+        if (searchIndex.isEnabled() && criteria.getQ() != null && !criteria.getQ().isBlank()) {
+            long window = (pageable.getPageNumber() + 1L) * size + searchCandidateMargin;
+            textMatches = searchIndex.search(userId, criteria.getQ(), (int) Math.min(window, searchMaxCandidates));
+            if (textMatches.isEmpty()) {
+                return new TaskSearchResponse(List.of(), pageable.getPageNumber(), size, 0, 0);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Page<Task> page = taskRepository.findAll(
+            TaskSpecifications.search(userId, criteria, now, textMatches), pageable);
+
+        List<TaskResponse> items = page.getContent().stream()
+            .map(task -> new TaskResponse(task, now))
+            .toList();
+        return new TaskSearchResponse(items, page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
     }
 
-    public TaskResponse createTask(String userEmail, TaskRequest taskRequest) {
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    @Transactional(readOnly = true)
+    public List<TaskResponse> searchText(Long userId, String query, int limit) {
+        if (!searchIndex.isEnabled()) {
+            TaskSearchCriteria criteria = new TaskSearchCriteria();
+            criteria.setQ(query);
+            return searchTasks(userId, criteria, limit).getItems();
+        }
+
+        List<Long> ids = searchIndex.search(userId, query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Task> byId = new HashMap<>();
+        for (Task task : taskRepository.findAllById(ids)) {
+            if (task.getUser().getId().equals(userId)) {
+                byId.put(task.getId(), task);
+            }
+        }
+        // Keep the index's ranking order
+        LocalDateTime now = LocalDateTime.now();
+        return ids.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .map(task -> new TaskResponse(task, now))
+            .toList();
+    }
+
+    @Transactional
+    public TaskResponse createTask(Long userId, TaskRequest taskRequest) {
+        shardDirectory.fenceWrites(userId);
+        long changeSeq = nextChangeSeq(userId);
+        // Reference only; the users row is not loaded just to set the foreign key
+        User user = userRepository.getReferenceById(userId);
 
         Task task = new Task();
         task.setTitle(taskRequest.getTitle());
@@ -53,22 +208,125 @@ public class TaskService {
         task.setPriority(taskRequest.getPriority());
         task.setStatus(taskRequest.getStatus() != null ? taskRequest.getStatus() : Task.Status.TODO);
         task.setUser(user);
+        task.setChangeSeq(changeSeq);
 
         Task savedTask = taskRepository.save(task);
-        return new TaskResponse(savedTask);
+        searchIndex.index(userId, savedTask);
+        statsCounters.onChange(userId, null, TaskStatsCounters.State.of(savedTask));
+        reminderScheduler.onChange(savedTask.getId(), userId, savedTask.getDueDate(), savedTask.getStatus());
+        taskVersions.bump(userId);
+        TaskResponse response = new TaskResponse(savedTask);
+        eventHub.publish(userId, new TaskEvent(TaskEvent.Type.CREATED, List.of(savedTask.getId()), response));
+        return response;
+    }
+
+    @Transactional
+    public List<TaskResponse> createTasks(Long userId, List<TaskRequest> taskRequests) {
+        shardDirectory.fenceWrites(userId);
+        long changeSeq = nextChangeSeq(userId);
+        User user = userRepository.getReferenceById(userId);
+
+        List<TaskResponse> created = new ArrayList<>(taskRequests.size());
+        List<Task> chunk = new ArrayList<>(bulkChunkSize);
+        for (TaskRequest taskRequest : taskRequests) {
+            Task task = new Task();
+            task.setTitle(taskRequest.getTitle());
+            task.setDescription(taskRequest.getDescription());
+            task.setDueDate(taskRequest.getDueDate());
+            task.setPriority(taskRequest.getPriority());
+            task.setStatus(taskRequest.getStatus() != null ? taskRequest.getStatus() : Task.Status.TODO);
+            task.setUser(user);
+            task.setChangeSeq(changeSeq);
+            chunk.add(task);
+
+            if (chunk.size() == bulkChunkSize) {
+                created.addAll(saveChunk(userId, chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created.addAll(saveChunk(userId, chunk));
+        }
+        taskVersions.bump(userId);
+        return created;
     }
 
-    public TaskResponse updateTask(String userEmail, Long taskId, TaskRequest taskRequest) {
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    // Flushes one JDBC batch and detaches it so the persistence context stays small
+    private List<TaskResponse> saveChunk(Long userId, List<Task> chunk) {
+        List<Task> saved = taskRepository.saveAll(chunk);
+        entityManager.flush();
+        entityManager.clear();
 
+        List<TaskResponse> responses = new ArrayList<>(saved.size());
+        for (Task task : saved) {
+            searchIndex.index(userId, task);
+            statsCounters.onChange(userId, null, TaskStatsCounters.State.of(task));
+            reminderScheduler.onChange(task.getId(), userId, task.getDueDate(), task.getStatus());
+            TaskResponse response = new TaskResponse(task);
+            eventHub.publish(userId, new TaskEvent(TaskEvent.Type.CREATED, List.of(task.getId()), response));
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @Transactional
+    public int updateTasksStatus(Long userId, List<Long> taskIds, Task.Status status) {
+        shardDirectory.fenceWrites(userId);
+        // Resolve owned ids first so reminders and events only ever see this user's tasks
+        List<Long> ownedIds = taskRepository.findOwnedIds(userId, taskIds);
+        if (ownedIds.isEmpty()) {
+            return 0;
+        }
+        int updated = taskRepository.updateStatusForUser(userId, ownedIds, status, LocalDateTime.now(), nextChangeSeq(userId));
+        statsCounters.invalidate(userId);
+        if (status == Task.Status.DONE) {
+            reminderScheduler.cancel(ownedIds);
+        } else {
+            reminderScheduler.refresh(ownedIds);
+        }
+        taskVersions.bump(userId);
+        eventHub.publish(userId, new TaskEvent(TaskEvent.Type.BULK_UPDATED, ownedIds, null));
+        return updated;
+    }
+
+    @Transactional
+    public int deleteTasks(Long userId, List<Long> taskIds) {
+        shardDirectory.fenceWrites(userId);
+        // Resolve owned ids first so tombstones are only written for this user's tasks
+        List<Long> ownedIds = taskRepository.findOwnedIds(userId, taskIds);
+        if (ownedIds.isEmpty()) {
+            return 0;
+        }
+        long changeSeq = nextChangeSeq(userId);
+        int deleted = taskRepository.deleteForUser(userId, ownedIds);
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskTombstone> tombstones = new ArrayList<>(ownedIds.size());
+        for (Long taskId : ownedIds) {
+            tombstones.add(new TaskTombstone(taskId, userId, now, changeSeq));
+        }
+        tombstoneRepository.saveAll(tombstones);
+        statsCounters.invalidate(userId);
+        reminderScheduler.cancel(ownedIds);
+        taskVersions.bump(userId);
+        eventHub.publish(userId, new TaskEvent(TaskEvent.Type.DELETED, ownedIds, null));
+        for (Long taskId : ownedIds) {
+            searchIndex.remove(userId, taskId);
+        }
+        return deleted;
+    }
+
+    @Transactional
+    public TaskResponse updateTask(Long userId, Long taskId, TaskRequest taskRequest) {
+        shardDirectory.fenceWrites(userId);
+        long changeSeq = nextChangeSeq(userId);
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
 
-        if (!task.getUser().getId().equals(user.getId())) {
+        if (!task.getUser().getId().equals(userId)) {
             throw new RuntimeException("Unauthorized to update this task");
         }
 
+        TaskStatsCounters.State before = TaskStatsCounters.State.of(task);
         task.setTitle(taskRequest.getTitle());
         task.setDescription(taskRequest.getDescription());
         task.setDueDate(taskRequest.getDueDate());
@@ -76,62 +334,204 @@ public class TaskService {
         if (taskRequest.getStatus() != null) {
             task.setStatus(taskRequest.getStatus());
         }
+        task.setChangeSeq(changeSeq);
 
         Task updatedTask = taskRepository.save(task);
-        return new TaskResponse(updatedTask);
+        searchIndex.index(userId, updatedTask);
+        statsCounters.onChange(userId, before, TaskStatsCounters.State.of(updatedTask));
+        reminderScheduler.onChange(taskId, userId, updatedTask.getDueDate(), updatedTask.getStatus());
+        taskVersions.bump(userId);
+        TaskResponse response = new TaskResponse(updatedTask);
+        eventHub.publish(userId, new TaskEvent(TaskEvent.Type.UPDATED, List.of(taskId), response));
+        return response;
     }
 
-    public TaskResponse updateTaskStatus(String userEmail, Long taskId, Task.Status status) {
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * Changes a task's status with a single ownership-checked UPDATE. The row is
+     * only read back when the caller wants it or an event subscriber needs it.
+     */
+    @Transactional
+    public TaskResponse updateTaskStatus(Long userId, Long taskId, Task.Status status, boolean returnTask) {
+        shardDirectory.fenceWrites(userId);
+        long changeSeq = nextChangeSeq(userId);
+        TaskStatsCounters.State before = previousState(userId, taskId);
 
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
+        if (taskRepository.updateStatusIfOwned(userId, taskId, status, LocalDateTime.now(), changeSeq) == 0) {
+            throw new RuntimeException("Task not found");
+        }
 
-        if (!task.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized to update this task");
+        TaskResponse response = null;
+        if (returnTask || eventHub.hasSubscribers(userId)) {
+            response = taskRepository.findById(taskId)
+                .map(TaskResponse::new)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        }
+        if (before != null) {
+            statsCounters.onChange(userId, before, before.withStatus(status));
+            reminderScheduler.onChange(taskId, userId, before.dueDate(), status);
         }
+        taskVersions.bump(userId);
+        eventHub.publish(userId, new TaskEvent(TaskEvent.Type.UPDATED, List.of(taskId), response));
+        return response;
+    }
 
-        task.setStatus(status);
-        Task updatedTask = taskRepository.save(task);
-        return new TaskResponse(updatedTask);
+    // Single ownership-checked DELETE; the tombstone is written in the same transaction
+    @Transactional
+    public void deleteTask(Long userId, Long taskId) {
+        shardDirectory.fenceWrites(userId);
+        long changeSeq = nextChangeSeq(userId);
+        TaskStatsCounters.State before = previousState(userId, taskId);
+
+        if (taskRepository.deleteIfOwned(userId, taskId) == 0) {
+            throw new RuntimeException("Task not found");
+        }
+
+        tombstoneRepository.save(new TaskTombstone(taskId, userId, LocalDateTime.now(), changeSeq));
+        searchIndex.remove(userId, taskId);
+        if (before != null) {
+            statsCounters.onChange(userId, before, null);
+        }
+        reminderScheduler.cancel(List.of(taskId));
+        taskVersions.bump(userId);
+        eventHub.publish(userId, new TaskEvent(TaskEvent.Type.DELETED, List.of(taskId), null));
     }
 
-    public void deleteTask(String userEmail, Long taskId) {
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    // Once per write transaction: the user's row stays locked until commit, so their next write gets a higher value
+    // only after this one's rows are visible, and getChanges can resume after any value it has returned
+    private long nextChangeSeq(Long userId) {
+        changeSeqRepository.increment(userId);
+        return changeSeqRepository.findSeq(userId).orElseThrow();
+    }
 
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
+    // Only the in-memory stats counters and reminders need the pre-write state, so skip the read otherwise
+    private TaskStatsCounters.State previousState(Long userId, Long taskId) {
+        if (!statsCounters.isEnabled() && !reminderScheduler.isEnabled()) {
+            return null;
+        }
+        return taskRepository.findStateIfOwned(userId, taskId)
+            .map(TaskStatsCounters.State::of)
+            .orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskResponse getTaskById(Long userId, Long taskId) {
+        return taskCache.get(userId, "task", taskId, () -> ReplicaRead.run(() -> taskRepository.findResponseIfOwned(userId, taskId))
+            .map(task -> task.markOverdue(LocalDateTime.now()))
+            .orElseThrow(() -> new RuntimeException("Task not found")));
+    }
 
-        if (!task.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized to delete this task");
+    /**
+     * Returns tasks created or updated and ids of tasks deleted since the cursor.
+     * Rows are read in change sequence order, and a user's writes commit in that
+     * order, so a write still running when the cursor moves past every committed
+     * value always lands after it, however long it takes.
+     */
+    @Transactional(readOnly = true)
+    public TaskChangesResponse getChanges(Long userId, String since, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+
+        SyncCursor cursor;
+        if (since == null || since.isEmpty()) {
+            // Fresh sync: every task, plus only deletions from now on
+            cursor = new SyncCursor(0, 0, changeSeqRepository.findSeq(userId).orElse(0L), Long.MAX_VALUE, now);
+        } else {
+            cursor = SyncCursor.decode(since);
+        }
+        if (cursor.getTombstoneTime().isBefore(now.minusDays(tombstoneRetentionDays))) {
+            throw new IllegalStateException("Cursor expired; a full resync is required");
+        }
+
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<TaskChangeRow> rows = taskRepository.findChangesAfter(
+            userId, cursor.getTaskSeq(), cursor.getTaskId(), pageable);
+        List<TaskTombstone> tombstones = tombstoneRepository.findChangesAfter(
+            userId, cursor.getTombstoneSeq(), cursor.getTombstoneId(), pageable);
+
+        boolean moreTasks = rows.size() > limit;
+        boolean moreTombstones = tombstones.size() > limit;
+        if (moreTasks) {
+            rows = rows.subList(0, limit);
+        }
+        if (moreTombstones) {
+            tombstones = tombstones.subList(0, limit);
+        }
+
+        // Each stream resumes after its last row, or where it was if it had none
+        long taskSeq = cursor.getTaskSeq();
+        long taskId = cursor.getTaskId();
+        if (!rows.isEmpty()) {
+            TaskChangeRow last = rows.get(rows.size() - 1);
+            taskSeq = last.getChangeSeq();
+            taskId = last.getTask().getId();
+        }
+        long tombstoneSeq = cursor.getTombstoneSeq();
+        long tombstoneId = cursor.getTombstoneId();
+        // A truncated stream still has to read tombstones from its last one on, so retention counts from there
+        LocalDateTime tombstoneTime = now;
+        if (!tombstones.isEmpty()) {
+            TaskTombstone last = tombstones.get(tombstones.size() - 1);
+            tombstoneSeq = last.getChangeSeq();
+            tombstoneId = last.getId();
+            if (moreTombstones) {
+                tombstoneTime = last.getDeletedAt();
+            }
         }
 
-        taskRepository.delete(task);
+        List<TaskResponse> changed = markOverdue(rows.stream()
+            .map(TaskChangeRow::getTask)
+            .collect(Collectors.toList()), now);
+        List<Long> deleted = tombstones.stream()
+            .map(TaskTombstone::getTaskId)
+            .collect(Collectors.toList());
+        String next = new SyncCursor(taskSeq, taskId, tombstoneSeq, tombstoneId, tombstoneTime).encode();
+        return new TaskChangesResponse(changed, deleted, next, moreTasks || moreTombstones);
     }
 
-    public TaskResponse getTaskById(String userEmail, Long taskId) {
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    private static List<TaskResponse> markOverdue(List<TaskResponse> tasks) {
+        return markOverdue(tasks, LocalDateTime.now());
+    }
 
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
+    // One clock read for the whole list rather than one per row
+    private static List<TaskResponse> markOverdue(List<TaskResponse> tasks, LocalDateTime now) {
+        for (TaskResponse task : tasks) {
+            task.markOverdue(now);
+        }
+        return tasks;
+    }
 
-        if (!task.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized to access this task");
+    public SseEmitter subscribe(Long userId) {
+        return eventHub.subscribe(userId);
+    }
+
+    public TaskStatsResponse getTaskStats(Long userId) {
+        if (statsCounters.isEnabled()) {
+            return statsCounters.get(userId);
         }
 
-        return new TaskResponse(task);
+        Map<Task.Status, Long> byStatus = new EnumMap<>(Task.Status.class);
+        for (Task.Status status : Task.Status.values()) {
+            byStatus.put(status, 0L);
+        }
+        Map<Task.Priority, Long> byPriority = new EnumMap<>(Task.Priority.class);
+        for (Task.Priority priority : Task.Priority.values()) {
+            byPriority.put(priority, 0L);
+        }
+        long total = 0;
+        long overdue = 0;
+        for (TaskStatsRow row : taskRepository.countStatsByUserId(userId, LocalDateTime.now())) {
+            byStatus.merge(row.getStatus(), row.getCount(), Long::sum);
+            byPriority.merge(row.getPriority(), row.getCount(), Long::sum);
+            total += row.getCount();
+            overdue += row.getOverdue();
+        }
+        return new TaskStatsResponse(total, overdue, byStatus, byPriority);
     }
 
-    public List<TaskResponse> getOverdueTasks(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return taskRepository.findOverdueTasks(user, LocalDateTime.now())
-            .stream()
-            .map(TaskResponse::new)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getOverdueTasks(Long userId) {
+        return taskCache.get(userId, "overdue", null, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            return List.copyOf(markOverdue(ReplicaRead.run(() -> taskRepository.findOverdueTasks(userId, now)), now));
+        });
     }
 }
\ No newline at end of file
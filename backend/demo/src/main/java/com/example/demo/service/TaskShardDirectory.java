@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TaskShards;
+import com.example.demo.entity.UserShard;
+import com.example.demo.repository.UserShardRepository;
+import com.example.demo.util.TaskShard;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maps users to the shard holding their tasks. Entries live in the user_shards
+ * table on the primary and are cached for directory-ttl-ms, which bounds how
+ * long another instance can act on a stale entry; TaskShardMover waits that
+ * long between the steps of a move. Task writes re-read their entry past the
+ * cache just before they commit (fenceWrites), so a write that outlasts the
+ * request's lookup cannot land on a shard the user is leaving. Without shards
+ * configured every user is on the primary and nothing is looked up.
+ */
+@Component
+public class TaskShardDirectory {
+
+    public record Placement(String shard, boolean moving) {}
+
+    private static final Placement ON_PRIMARY = new Placement(TaskShard.PRIMARY, false);
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Autowired
+    private UserShardRepository userShardRepository;
+
+    @Value("${datasource.task-shards.new-users:}")
+    private String[] newUserShards;
+
+    @Value("${datasource.task-shards.directory-ttl-ms:5000}")
+    private long ttlMillis;
+
+    @Value("${datasource.task-shards.directory-max-size:100000}")
+    private long maxSize;
+
+    private Cache<Long, Placement> placements;
+    private JdbcTemplate primary;
+
+    @PostConstruct
+    void init() {
+        for (String shard : newUserShards) {
+            if (!taskShards.contains(shard)) {
+                throw new IllegalStateException("datasource.task-shards.new-users names unknown shard " + shard);
+            }
+        }
+        primary = new JdbcTemplate(taskShards.get(TaskShard.PRIMARY));
+        placements = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .build();
+    }
+
+    public boolean isEnabled() {
+        return taskShards.isSharded();
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    // How long a refused writer should wait: by then every instance sees the current entry
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (ttlMillis + 999) / 1000);
+    }
+
+    // Call outside any transaction: the entry is read from the primary
+    public Placement lookup(Long userId) {
+        if (!isEnabled()) {
+            return ON_PRIMARY;
+        }
+        return placements.get(userId, id -> TaskShard.run(TaskShard.PRIMARY, () -> userShardRepository.findById(id))
+            .map(entry -> new Placement(entry.getShard(), entry.isMoving()))
+            .orElse(ON_PRIMARY));
+    }
+
+    public String shardOf(Long userId) {
+        return lookup(userId).shard();
+    }
+
+    // The entry as stored, past the cache and over a connection of its own, so it can be read inside a transaction
+    // on any shard and leaves the cache alone
+    public Placement stored(Long userId) {
+        if (!isEnabled()) {
+            return ON_PRIMARY;
+        }
+        List<Placement> entries = primary.query("SELECT shard, moving FROM user_shards WHERE user_id = ?",
+            (rs, row) -> new Placement(rs.getString(1), rs.getBoolean(2)), userId);
+        return entries.isEmpty() ? ON_PRIMARY : entries.get(0);
+    }
+
+    /**
+     * Rolls the surrounding task write back unless, when it commits, the user
+     * still lives on the shard it writes to and is not being moved. Checked
+     * just before commit, the gap to the commit itself is far below the TTL the
+     * mover waits after marking a user as moving, so every write that passes
+     * is committed before the copy starts. No-op outside a transaction.
+     */
+    public void fenceWrites(Long userId) {
+        if (!isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String shard = TaskShard.current() != null ? TaskShard.current() : TaskShard.PRIMARY;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                Placement placement = stored(userId);
+                if (placement.moving() || !placement.shard().equals(shard)) {
+                    placements.put(userId, placement);
+                    throw new TaskShardMovingException("Tasks are being moved, try again shortly", getRetryAfterSeconds());
+                }
+            }
+        });
+    }
+
+    // Spreads new users over datasource.task-shards.new-users by id; without it they stay on the primary
+    public void assignNewUser(Long userId) {
+        if (!isEnabled() || newUserShards.length == 0) {
+            return;
+        }
+        put(userId, newUserShards[Math.floorMod(userId, newUserShards.length)], false);
+    }
+
+    // Takes effect here at once and on other instances once their cached entry expires
+    public void put(Long userId, String shard, boolean moving) {
+        TaskShard.run(TaskShard.PRIMARY, () -> userShardRepository.save(new UserShard(userId, shard, moving, LocalDateTime.now())));
+        placements.put(userId, new Placement(shard, moving));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TaskShards;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves one user's tasks and tombstones to another shard while the app keeps
+ * serving. The user is first marked as moving, which refuses their task
+ * writes but keeps their reads on the old shard; once every instance has seen
+ * that (one directory TTL), the rows are copied with their ids, the directory
+ * is switched to the new shard, and after another TTL the old rows are
+ * deleted. A failed copy is cleaned up and leaves the user where they were.
+ * Writes that were already running when the user was marked are rolled back
+ * at commit by TaskShardDirectory.fenceWrites, so none lands on the source
+ * after the copy.
+ */
+@Service
+public class TaskShardMover {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskShardMover.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    // Key column first; rows are copied in its order
+    private static final String TASK_COLUMNS = "id, title, description, due_date, priority, status, user_id, created_at, updated_at, change_seq";
+    private static final String TOMBSTONE_COLUMNS = "id, task_id, user_id, deleted_at, change_seq";
+    private static final String CHANGE_SEQ_COLUMNS = "user_id, seq";
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Autowired
+    private TaskShardDirectory directory;
+
+    private ExecutorService runner;
+
+    @PostConstruct
+    void start() {
+        runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-shard-mover");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // An interrupted move fails its copy and leaves the user where they were
+    @PreDestroy
+    void stop() {
+        runner.shutdownNow();
+    }
+
+    // Queues the move and returns at once; progress shows in the user's placement, the outcome in the log
+    public void startMove(Long userId, String target) {
+        if (!taskShards.contains(target)) {
+            throw new IllegalArgumentException("Unknown task shard: " + target);
+        }
+        runner.execute(() -> {
+            try {
+                move(userId, target);
+            } catch (RuntimeException e) {
+                log.error("Moving user {} to shard {} failed", userId, target, e);
+            }
+        });
+    }
+
+    // Returns the number of tasks moved; one move at a time per instance
+    public synchronized int move(Long userId, String target) {
+        if (!taskShards.contains(target)) {
+            throw new IllegalArgumentException("Unknown task shard: " + target);
+        }
+        String source = directory.stored(userId).shard();
+        if (source.equals(target)) {
+            return 0;
+        }
+
+        directory.put(userId, source, true);
+        JdbcTemplate from = new JdbcTemplate(taskShards.get(source));
+        from.setFetchSize(BATCH_SIZE);
+        JdbcTemplate to = new JdbcTemplate(taskShards.get(target));
+        int moved;
+        try {
+            awaitDirectoryTtl();
+            // Rows left behind by an earlier attempt that failed half way
+            delete(to, userId);
+            moved = copy(from, to, "tasks", TASK_COLUMNS, userId);
+            copy(from, to, "task_tombstones", TOMBSTONE_COLUMNS, userId);
+            // Delta sync cursors stay valid: the user's next write continues their sequence on the target
+            copy(from, to, "task_change_seqs", CHANGE_SEQ_COLUMNS, userId);
+        } catch (RuntimeException e) {
+            log.warn("Moving user {} from shard {} to {} failed, leaving them on {}: {}", userId, source, target, source, e.getMessage());
+            delete(to, userId);
+            directory.put(userId, source, false);
+            throw e;
+        }
+
+        directory.put(userId, target, false);
+        // Instances that still see the user as moving read from the source until their entry expires
+        awaitDirectoryTtl();
+        delete(from, userId);
+        log.info("Moved user {} with {} tasks from shard {} to {}", userId, moved, source, target);
+        return moved;
+    }
+
+    private int copy(JdbcTemplate from, JdbcTemplate to, String table, String columns, Long userId) {
+        int width = columns.split(",").length;
+        String insert = "INSERT INTO " + table + " (" + columns + ") VALUES (" + "?, ".repeat(width - 1) + "?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        int[] copied = {0};
+        String key = columns.substring(0, columns.indexOf(','));
+        from.query("SELECT " + columns + " FROM " + table + " WHERE user_id = ? ORDER BY " + key, (RowCallbackHandler) rs -> {
+            Object[] row = new Object[width];
+            for (int i = 0; i < width; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            batch.add(row);
+            if (batch.size() == BATCH_SIZE) {
+                to.batchUpdate(insert, batch);
+                copied[0] += batch.size();
+                batch.clear();
+            }
+        }, userId);
+        if (!batch.isEmpty()) {
+            to.batchUpdate(insert, batch);
+            copied[0] += batch.size();
+        }
+        return copied[0];
+    }
+
+    private static void delete(JdbcTemplate shard, Long userId) {
+        shard.update("DELETE FROM tasks WHERE user_id = ?", userId);
+        shard.update("DELETE FROM task_tombstones WHERE user_id = ?", userId);
+        shard.update("DELETE FROM task_change_seqs WHERE user_id = ?", userId);
+    }
+
+    private void awaitDirectoryTtl() {
+        try {
+            Thread.sleep(directory.getTtlMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while moving tasks", e);
+        }
+    }
+}
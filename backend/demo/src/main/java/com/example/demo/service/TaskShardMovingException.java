@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+// Thrown when a user's task write reaches commit while their tasks are being moved, or after they have moved away
+public class TaskShardMovingException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TaskShardMovingException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskStatsResponse;
+import com.example.demo.entity.Task;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.TaskStateRow;
+import com.example.demo.repository.TaskStatsRow;
+import com.example.demo.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-memory task counters per user, kept current by TaskService so
+ * stats reads do not touch the database. Changes are applied once their write
+ * has committed, so rolled-back writes never reach the counters. Counts are
+ * only correct while this instance sees every write for the user, so it is off
+ * by default and should only be enabled for single-instance deployments.
+ */
+@Component
+public class TaskStatsCounters {
+
+    // The fields of a task that the counters depend on
+    public record State(Task.Status status, Task.Priority priority, LocalDateTime dueDate) {
+        public static State of(Task task) {
+            return new State(task.getStatus(), task.getPriority(), task.getDueDate());
+        }
+
+        public static State of(TaskStateRow row) {
+            return new State(row.getStatus(), row.getPriority(), row.getDueDate());
+        }
+
+        public State withStatus(Task.Status newStatus) {
+            return new State(newStatus, priority, dueDate);
+        }
+
+        boolean isOpenWithDueDate() {
+            return dueDate != null && status != Task.Status.DONE;
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${tasks.stats.in-memory:false}")
+    private boolean enabled;
+
+    @Value("${tasks.stats.max-users:10000}")
+    private int maxUsers;
+
+    private final Map<Long, UserCounters> counters = new ConcurrentHashMap<>();
+    // Orders change registrations against finished loads, see onChange
+    private final AtomicLong sequence = new AtomicLong();
+    private TransactionTemplate loader;
+
+    @PostConstruct
+    void init() {
+        loader = new TransactionTemplate(transactionManager);
+        loader.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loader.setReadOnly(true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TaskStatsResponse get(Long userId) {
+        UserCounters user = countersFor(userId);
+        user.lock.lock();
+        try {
+            return user.snapshot(LocalDateTime.now());
+        } finally {
+            user.lock.unlock();
+        }
+    }
+
+    /** Applies one task change once its write commits; before is null for creates, after is null for deletes. */
+    public void onChange(Long userId, State before, State after) {
+        if (!enabled) {
+            return;
+        }
+        long registered = sequence.incrementAndGet();
+        AfterCommit.run(() -> {
+            UserCounters user = counters.get(userId);
+            // Users that are not loaded yet will read the change from the database
+            if (user == null) {
+                return;
+            }
+            user.lock.lock();
+            try {
+                if (user.loadedAt < registered) {
+                    // Loaded before this write got here, so the load cannot have counted it
+                    if (before != null) {
+                        user.apply(before, -1);
+                    }
+                    if (after != null) {
+                        user.apply(after, 1);
+                    }
+                } else {
+                    // The load ran while this write was in flight and may or may not have counted it
+                    counters.remove(userId, user);
+                }
+            } finally {
+                user.lock.unlock();
+            }
+        });
+    }
+
+    /** Drops the user's counters once the write commits, e.g. after bulk writes whose per-task before-state is unknown. */
+    public void invalidate(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> counters.remove(userId));
+    }
+
+    private UserCounters countersFor(Long userId) {
+        UserCounters user = counters.get(userId);
+        if (user != null) {
+            return user;
+        }
+        if (counters.size() >= maxUsers) {
+            Iterator<Long> it = counters.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        // Publish locked so concurrent writes wait for the load instead of being lost
+        UserCounters created = new UserCounters();
+        created.lock.lock();
+        try {
+            user = counters.putIfAbsent(userId, created);
+            if (user != null) {
+                return user;
+            }
+            // A transaction of its own, so the rows are read after publication rather than in the caller's snapshot
+            loader.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                created.load(taskRepository.countStatsByUserId(userId, now),
+                    taskRepository.findOpenDueDatesByUserId(userId), now);
+            });
+            created.loadedAt = sequence.incrementAndGet();
+            return created;
+        } catch (RuntimeException e) {
+            counters.remove(userId, created);
+            throw e;
+        } finally {
+            created.lock.unlock();
+        }
+    }
+
+    private static final class UserCounters {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        // Sequence value taken when the load finished; guarded by lock
+        private long loadedAt = Long.MAX_VALUE;
+        private final long[] byStatus = new long[Task.Status.values().length];
+        private final long[] byPriority = new long[Task.Priority.values().length];
+        // Open tasks not yet overdue, by due date; entries move to overdue as the clock passes them
+        private final NavigableMap<LocalDateTime, Integer> pendingDue = new TreeMap<>();
+        private long overdue;
+
+        void load(List<TaskStatsRow> rows, List<LocalDateTime> openDueDates, LocalDateTime now) {
+            for (TaskStatsRow row : rows) {
+                byStatus[row.getStatus().ordinal()] += row.getCount();
+                byPriority[row.getPriority().ordinal()] += row.getCount();
+            }
+            for (LocalDateTime dueDate : openDueDates) {
+                pendingDue.merge(dueDate, 1, Integer::sum);
+            }
+            advance(now);
+        }
+
+        void apply(State state, int delta) {
+            byStatus[state.status().ordinal()] += delta;
+            byPriority[state.priority().ordinal()] += delta;
+            if (!state.isOpenWithDueDate()) {
+                return;
+            }
+            if (delta > 0) {
+                pendingDue.merge(state.dueDate(), 1, Integer::sum);
+            } else if (pendingDue.containsKey(state.dueDate())) {
+                pendingDue.computeIfPresent(state.dueDate(), (k, n) -> n > 1 ? n - 1 : null);
+            } else {
+                // Already moved over to the overdue count
+                overdue--;
+            }
+        }
+
+        TaskStatsResponse snapshot(LocalDateTime now) {
+            advance(now);
+            Map<Task.Status, Long> statusCounts = new EnumMap<>(Task.Status.class);
+            long total = 0;
+            for (Task.Status status : Task.Status.values()) {
+                statusCounts.put(status, byStatus[status.ordinal()]);
+                total += byStatus[status.ordinal()];
+            }
+            Map<Task.Priority, Long> priorityCounts = new EnumMap<>(Task.Priority.class);
+            for (Task.Priority priority : Task.Priority.values()) {
+                priorityCounts.put(priority, byPriority[priority.ordinal()]);
+            }
+            return new TaskStatsResponse(total, overdue, statusCounts, priorityCounts);
+        }
+
+        // Amortized O(1): each due date is moved over at most once
+        private void advance(LocalDateTime now) {
+            Map.Entry<LocalDateTime, Integer> first;
+            while ((first = pendingDue.firstEntry()) != null && first.getKey().isBefore(now)) {
+                overdue += first.getValue();
+                pendingDue.pollFirstEntry();
+            }
+        }
+    }
+}
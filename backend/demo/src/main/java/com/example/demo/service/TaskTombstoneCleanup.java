@@ -0,0 +1,34 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TaskShards;
+import com.example.demo.repository.TaskTombstoneRepository;
+import com.example.demo.util.TaskShard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// Purges tombstones older than the retention window; clients with older cursors must resync fully
+@Component
+public class TaskTombstoneCleanup {
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Value("${tasks.changes.tombstone-retention-days:30}")
+    private int retentionDays;
+
+    @Scheduled(fixedDelayString = "${tasks.changes.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        // One transaction per shard, each bound to that shard's connection
+        for (String shard : taskShards.names()) {
+            TaskShard.run(shard, () -> tombstoneRepository.deleteOlderThan(cutoff));
+        }
+    }
+}
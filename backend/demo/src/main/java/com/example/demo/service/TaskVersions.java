@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user version stamps for task collections, used as ETags so unchanged
+ * lists can be answered with 304 before any query runs. Every task mutation
+ * in TaskService bumps the owner's version once its transaction commits.
+ * Versions only see this instance's writes, so a client kept on one instance
+ * would get 304 for changes made through another: ETags are off by default
+ * and should only be enabled for single-instance deployments.
+ */
+@Component
+public class TaskVersions {
+
+    @Value("${tasks.etag.enabled:false}")
+    private boolean etagsEnabled;
+
+    // Distinguishes this process so ETags from an earlier run never match
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+    // Versions come from one global counter so an evicted user never gets an old value back
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private volatile long floor;
+
+    private final Clock clock = Clock.systemUTC();
+
+    @Value("${tasks.etag.max-users:100000}")
+    private int maxUsers;
+
+    // Task rows carry a time-dependent overdue flag, so tags also roll over every bucket
+    @Value("${tasks.etag.time-bucket-seconds:60}")
+    private long timeBucketSeconds;
+
+    public boolean isEtagsEnabled() {
+        return etagsEnabled;
+    }
+
+    public long version(Long userId) {
+        return versions.getOrDefault(userId, floor);
+    }
+
+    public String etag(Long userId) {
+        long bucket = clock.millis() / 1000 / Math.max(1, timeBucketSeconds);
+        return "\"" + instanceId + "-" + userId + "-" + version(userId) + "-" + bucket + "\"";
+    }
+
+    public void bump(Long userId) {
+        // Readers must not see the new version before they can see the new data
+        AfterCommit.run(() -> bumpNow(userId));
+    }
+
+    private void bumpNow(Long userId) {
+        if (versions.size() >= maxUsers && !versions.containsKey(userId)) {
+            Iterator<Long> it = versions.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+                floor = sequence.incrementAndGet();
+            }
+        }
+        versions.put(userId, sequence.incrementAndGet());
+    }
+}
@@ -1,88 +1,199 @@
 package com.example.demo.util;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtil {
-    
+
     @Value("${jwt.secret:mySecretKey}")
     private String jwtSecret;
-    
+
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long jwtExpiration;
-    
-    private Key getSigningKey() {
+
+    @Value("${jwt.claims-cache.enabled:true}")
+    private boolean claimsCacheEnabled;
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Full signature checks only; claims-cache hits are counted separately
+    private Timer verificationTimer;
+    private Counter cacheHits;
+
+    // Built once at startup; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    // Verified claims keyed by SHA-256 digest of the raw token, valid until the token's exp
+    private final Map<String, TokenClaims> claimsCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verificationTimer = Timer.builder("jwt.verification")
+                .description("JWT signature verification and claims parsing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.cacheHits = Counter.builder("jwt.claims.cache.hits")
+                .description("Tokens answered from the verified-claims cache")
+                .register(meterRegistry);
     }
-    
+
     public String generateToken(String email, Long userId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
-        
+
         return Jwts.builder()
                 .setSubject(email)
                 .claim("userId", userId)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
-    
+
+    /**
+     * Verifies the token at most once and returns its claims, or null when the
+     * token is malformed, badly signed or expired. Repeat calls with the same
+     * token are served from the claims cache until the token expires.
+     */
+    public TokenClaims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        String key = claimsCacheEnabled ? digest(token) : null;
+
+        if (key != null) {
+            TokenClaims cached = claimsCache.get(key);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    cacheHits.increment();
+                    return cached;
+                }
+                claimsCache.remove(key, cached);
+                recordFailure("expired");
+                return null;
+            }
+        }
+
+        TokenClaims claims;
+        long start = System.nanoTime();
+        try {
+            Claims body = parser.parseClaimsJws(token).getBody();
+            Date expiration = body.getExpiration();
+            claims = new TokenClaims(
+                    body.getSubject(),
+                    body.get("userId", Long.class),
+                    expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        } catch (ExpiredJwtException e) {
+            recordFailure("expired");
+            return null;
+        } catch (SignatureException e) {
+            recordFailure("signature");
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            recordFailure("malformed");
+            return null;
+        } finally {
+            verificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        // Tokens without an exp claim are never cached
+        if (key != null && claims.getExpiresAtMillis() != Long.MAX_VALUE) {
+            if (claimsCache.size() >= claimsCacheMaxSize) {
+                evictClaims(now);
+            }
+            claimsCache.put(key, claims);
+        }
+        return claims;
+    }
+
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.getSubject();
+        TokenClaims claims = parseToken(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
+        }
+        return claims.getEmail();
     }
-    
+
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return claims.get("userId", Long.class);
+        TokenClaims claims = parseToken(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
+        }
+        return claims.getUserId();
     }
-    
+
     public boolean isTokenExpired(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            return claims.getExpiration().before(new Date());
-        } catch (JwtException | IllegalArgumentException e) {
-            return true;
-        }
+        return parseToken(token) == null;
     }
-    
+
     public boolean validateToken(String token) {
+        return parseToken(token) != null;
+    }
+
+    private void recordFailure(String reason) {
+        meterRegistry.counter("jwt.verification.failures", "reason", reason).increment();
+    }
+
+    // Drop expired entries first; if the cache is still full, drop an arbitrary half
+    private void evictClaims(long now) {
+        claimsCache.values().removeIf(claims -> claims.isExpired(now));
+        if (claimsCache.size() < claimsCacheMaxSize) {
+            return;
+        }
+        int toRemove = claimsCache.size() / 2;
+        Iterator<String> it = claimsCache.keySet().iterator();
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
\ No newline at end of file
+}
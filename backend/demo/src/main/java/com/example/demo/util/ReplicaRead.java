@@ -0,0 +1,27 @@
+package com.example.demo.util;
+
+import java.util.function.Supplier;
+
+// Marks reads that may be served by the read replica; anything outside run() always uses the primary
+public final class ReplicaRead {
+
+    private static final ThreadLocal<Boolean> REQUESTED = new ThreadLocal<>();
+
+    private ReplicaRead() {}
+
+    public static <T> T run(Supplier<T> read) {
+        Boolean outer = REQUESTED.get();
+        REQUESTED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (outer == null) {
+                REQUESTED.remove();
+            }
+        }
+    }
+
+    public static boolean isRequested() {
+        return REQUESTED.get() != null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque delta-sync position: keyset over (changeSeq, id) for tasks and for tombstones, plus the time tombstones were
+// last read up to, which decides when the cursor has outlived tombstone retention
+public final class SyncCursor {
+
+    private final long taskSeq;
+    private final long taskId;
+    private final long tombstoneSeq;
+    private final long tombstoneId;
+    private final LocalDateTime tombstoneTime;
+
+    public SyncCursor(long taskSeq, long taskId, long tombstoneSeq, long tombstoneId, LocalDateTime tombstoneTime) {
+        this.taskSeq = taskSeq;
+        this.taskId = taskId;
+        this.tombstoneSeq = tombstoneSeq;
+        this.tombstoneId = tombstoneId;
+        this.tombstoneTime = tombstoneTime;
+    }
+
+    public long getTaskSeq() { return taskSeq; }
+
+    public long getTaskId() { return taskId; }
+
+    public long getTombstoneSeq() { return tombstoneSeq; }
+
+    public long getTombstoneId() { return tombstoneId; }
+
+    public LocalDateTime getTombstoneTime() { return tombstoneTime; }
+
+    public String encode() {
+        String raw = taskSeq + "|" + taskId + "|" + tombstoneSeq + "|" + tombstoneId + "|" + tombstoneTime;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncCursor decode(String cursor) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        // Cursors from before change sequences were keyed on timestamps and cannot be resumed
+        if (parts.length == 4) {
+            throw new IllegalStateException("Cursor expired; a full resync is required");
+        }
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return new SyncCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                Long.parseLong(parts[2]), Long.parseLong(parts[3]), LocalDateTime.parse(parts[4]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
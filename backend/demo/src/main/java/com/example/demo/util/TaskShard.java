@@ -0,0 +1,40 @@
+package com.example.demo.util;
+
+import java.util.function.Supplier;
+
+// Names the task shard the current thread's task queries go to; with none set they go to the primary
+public final class TaskShard {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TaskShard() {}
+
+    public static <T> T run(String shard, Supplier<T> work) {
+        String outer = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    // For scopes that span a whole request; pair every enter() with exit()
+    public static void enter(String shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void exit() {
+        CURRENT.remove();
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+}
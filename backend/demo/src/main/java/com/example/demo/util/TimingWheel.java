@@ -0,0 +1,167 @@
+package com.example.demo.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck). Each level has 64 slots and
+ * every slot is a doubly linked list, so scheduling and cancelling a timer are
+ * O(1). Advancing costs one slot per tick plus the timers that expire or
+ * cascade down a level. Not thread-safe; callers serialise access.
+ */
+public final class TimingWheel<T> {
+
+    public static final class Timer<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Slot<T> slot;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() { return payload; }
+
+        public boolean isPending() { return slot != null; }
+    }
+
+    private static final class Slot<T> {
+        private Timer<T> head;
+        private Timer<T> tail;
+
+        void add(Timer<T> timer) {
+            timer.slot = this;
+            timer.prev = tail;
+            timer.next = null;
+            if (tail == null) {
+                head = timer;
+            } else {
+                tail.next = timer;
+            }
+            tail = timer;
+        }
+
+        void remove(Timer<T> timer) {
+            if (timer.prev == null) {
+                head = timer.next;
+            } else {
+                timer.prev.next = timer.next;
+            }
+            if (timer.next == null) {
+                tail = timer.prev;
+            } else {
+                timer.next.prev = timer.prev;
+            }
+            timer.slot = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+
+        // Empties the slot and returns its former contents as a detached chain
+        Timer<T> drain() {
+            Timer<T> first = head;
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final Slot<T>[][] levels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || levelCount <= 0 || levelCount * BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = new Slot[levelCount][SLOTS];
+        for (Slot<T>[] level : levels) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Slot<>();
+            }
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /** Schedules a timer; deadlines already in the past fire on the next tick. */
+    public Timer<T> schedule(long deadlineMillis, T payload) {
+        // Round up so a timer never fires before its deadline
+        long tick = Math.floorDiv(deadlineMillis, tickMillis) + (Math.floorMod(deadlineMillis, tickMillis) == 0 ? 0 : 1);
+        Timer<T> timer = new Timer<>(payload, Math.max(tick, currentTick + 1));
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    public boolean cancel(Timer<T> timer) {
+        if (timer == null || timer.slot == null) {
+            return false;
+        }
+        timer.slot.remove(timer);
+        size--;
+        return true;
+    }
+
+    /** Moves the wheel up to nowMillis, handing every expired payload to the consumer. */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            // Pull the next span of each coarser level down once the finer levels wrap
+            for (int level = 1; level < levels.length; level++) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(levels[level][(int) ((currentTick >>> (BITS * level)) & MASK)]);
+            }
+
+            Timer<T> timer = levels[0][(int) (currentTick & MASK)].drain();
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.slot = null;
+                timer.prev = null;
+                timer.next = null;
+                if (timer.deadlineTick <= currentTick) {
+                    size--;
+                    expired.accept(timer.payload);
+                } else {
+                    place(timer);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(Slot<T> slot) {
+        Timer<T> timer = slot.drain();
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        int level = 0;
+        while (level < levels.length - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        // Beyond the top level's range the timer is parked and re-placed when its slot cascades
+        int index = (int) ((timer.deadlineTick >>> (BITS * level)) & MASK);
+        levels[level][index].add(timer);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.util;
+
+// Immutable view of the claims we read from a verified JWT
+public final class TokenClaims {
+
+    private final String email;
+    private final Long userId;
+    private final long expiresAtMillis;
+
+    public TokenClaims(String email, Long userId, long expiresAtMillis) {
+        this.email = email;
+        this.userId = userId;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getEmail() { return email; }
+
+    public Long getUserId() { return userId; }
+
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
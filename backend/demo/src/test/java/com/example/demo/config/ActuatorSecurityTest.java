@@ -0,0 +1,73 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.demo.util.TaskShard;
+
+/**
+ * Boots the app with the management server on its own port, as in production,
+ * and checks which actuator endpoints are reachable without the operator login.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "management.server.port=0",
+    "management.operator.username=ops",
+    "management.operator.password={noop}secret"
+})
+// Tests switch metrics export off by default, which would leave no prometheus endpoint to check
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("embedded")
+class ActuatorSecurityTest {
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void healthAndPrometheusAreOpen() {
+        assertThat(get("/actuator/health", restTemplate).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(get("/actuator/prometheus", restTemplate).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void otherEndpointsNeedTheOperatorLogin() {
+        assertThat(get("/actuator/metrics", restTemplate).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(get("/actuator/metrics", restTemplate.withBasicAuth("ops", "wrong")).getStatusCode())
+            .isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(get("/actuator/metrics", restTemplate.withBasicAuth("ops", "secret")).getStatusCode())
+            .isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void taskShardMovesNeedTheOperatorLogin() {
+        Map<String, String> body = Map.of("shard", TaskShard.PRIMARY);
+
+        assertThat(post("/actuator/taskshards/1", body, restTemplate).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        ResponseEntity<String> started = post("/actuator/taskshards/1", body, restTemplate.withBasicAuth("ops", "secret"));
+        assertThat(started.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(started.getBody()).contains("\"status\":\"started\"");
+        assertThat(post("/actuator/taskshards/1", Map.of("shard", "nowhere"), restTemplate.withBasicAuth("ops", "secret"))
+            .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<String> post(String path, Object body, TestRestTemplate client) {
+        return client.postForEntity("http://127.0.0.1:" + managementPort + path, body, String.class);
+    }
+
+    private ResponseEntity<String> get(String path, TestRestTemplate client) {
+        return client.getForEntity("http://127.0.0.1:" + managementPort + path, String.class);
+    }
+}
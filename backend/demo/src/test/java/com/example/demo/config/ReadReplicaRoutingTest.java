@@ -0,0 +1,169 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.JwtUtil;
+import com.example.demo.util.ReplicaRead;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Runs the app against two embedded databases, a primary and a "replica"
+ * that never replicates. Rows written only to the replica show which
+ * database a read was served from.
+ */
+@SpringBootTest(properties = {
+    "datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+    "datasource.replica.username=sa",
+    "datasource.replica.password=",
+    "datasource.replica.read-your-writes-ms=500",
+    "datasource.replica.retry-after-ms=60000",
+    // Every read has to reach a database for the routing to show
+    "tasks.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+    private User user;
+
+    // Copies the schema Hibernate created on the primary; the replica holds only what a test puts there
+    @BeforeEach
+    void setUp() {
+        // The replica pool is read-only, so test data goes in over a separate connection
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        if (replica.queryForObject("SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'TASKS'", Integer.class) == 0) {
+            for (String statement : jdbcTemplate.queryForList("SCRIPT NODATA", String.class)) {
+                replica.execute(statement);
+            }
+        }
+
+        String email = UUID.randomUUID() + "@example.com";
+        user = userRepository.save(new User(email, "Routed", email, null));
+    }
+
+    @Test
+    void taskListsAreReadFromTheReplica() throws Exception {
+        insertOnReplica("Only on the replica");
+
+        mockMvc.perform(authed(get("/api/tasks")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].title").value(hasItem("Only on the replica")));
+    }
+
+    @Test
+    void writerReadsFromThePrimaryUntilTheWindowCloses() throws Exception {
+        insertOnReplica("Only on the replica");
+        mockMvc.perform(authed(post("/api/tasks")).content("{\"title\":\"Just written\",\"priority\":\"LOW\"}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(authed(get("/api/tasks")))
+            .andExpect(jsonPath("$[*].title").value(hasItem("Just written")))
+            .andExpect(jsonPath("$[*].title").value(not(hasItem("Only on the replica"))));
+
+        Thread.sleep(600);
+        mockMvc.perform(authed(get("/api/tasks")))
+            .andExpect(jsonPath("$[*].title").value(hasItem("Only on the replica")));
+    }
+
+    @Test
+    void userLookupFallsBackToThePrimaryForNewUsers() throws Exception {
+        // Tokens without a userId claim resolve the user by email; this one exists only on the primary
+        String token = jwtUtil.generateToken(user.getEmail(), null);
+        mockMvc.perform(get("/api/tasks").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void connectionsWithCredentialsAreRoutedTheSameWay() throws Exception {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:routed-primary"),
+            new DriverManagerDataSource("jdbc:h2:mem:routed-replica"), 500, 60000);
+
+        try (Connection connection = routing.getConnection("sa", "")) {
+            assertThat(connection.getMetaData().getURL()).isEqualTo("jdbc:h2:mem:routed-primary");
+        }
+        String url = ReplicaRead.run(() -> {
+            try (Connection connection = routing.getConnection("sa", "")) {
+                return connection.getMetaData().getURL();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(url).isEqualTo("jdbc:h2:mem:routed-replica");
+    }
+
+    // Closing the pool makes every replica checkout fail, so this context cannot be reused
+    @Test
+    @DirtiesContext
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() throws Exception {
+        insertOnReplica("Only on the replica");
+        mockMvc.perform(authed(post("/api/tasks")).content("{\"title\":\"On the primary\",\"priority\":\"LOW\"}"))
+            .andExpect(status().isOk());
+        Thread.sleep(600);
+
+        replicaDataSource.close();
+        mockMvc.perform(authed(get("/api/tasks")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].title").value(hasItem("On the primary")));
+    }
+
+    private void insertOnReplica(String title) {
+        replica.update("MERGE INTO users (id, email, name, google_id) KEY (id) VALUES (?, ?, ?, ?)",
+            user.getId(), user.getEmail(), user.getName(), user.getGoogleId());
+        LocalDateTime now = LocalDateTime.now();
+        replica.update("INSERT INTO tasks (id, title, priority, status, user_id, created_at, updated_at) VALUES (?, ?, 'LOW', 'TODO', ?, ?, ?)",
+            -user.getId(), title, user.getId(), now, now);
+    }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user.getEmail(), user.getId()))
+            .contentType(MediaType.APPLICATION_JSON);
+    }
+}
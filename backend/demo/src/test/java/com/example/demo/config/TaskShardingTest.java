@@ -0,0 +1,279 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.dto.TaskImportResponse;
+import com.example.demo.dto.TaskRequest;
+import com.example.demo.entity.Task;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.TaskShardDirectory;
+import com.example.demo.service.TaskImportService;
+import com.example.demo.service.TaskService;
+import com.example.demo.service.TaskShardMover;
+import com.example.demo.service.TaskShardMovingException;
+import com.example.demo.util.JwtUtil;
+import com.example.demo.util.TaskShard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the app against the embedded primary plus one embedded task shard,
+ * "east", and checks where task rows end up by querying each database directly.
+ */
+@SpringBootTest(properties = {
+    "datasource.task-shards.names=east",
+    "datasource.task-shards.east.url=jdbc:h2:mem:shard-east;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "datasource.task-shards.east.username=sa",
+    "datasource.task-shards.east.password=",
+    "datasource.task-shards.directory-ttl-ms=100",
+    "tasks.import.chunk-size=2",
+    // Every read has to reach a database for the routing to show
+    "tasks.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class TaskShardingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Autowired
+    private TaskShardDirectory directory;
+
+    @Autowired
+    private TaskShardMover mover;
+
+    @Autowired
+    private TaskShardsEndpoint endpoint;
+
+    @Autowired
+    private TaskImportService importService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private JdbcTemplate east;
+    private User user;
+
+    // Gives the shard the schema Hibernate created on the primary, minus the users foreign key, with ids from the shard's own range
+    @BeforeEach
+    void setUp() {
+        east = new JdbcTemplate(taskShards.get("east"));
+        if (east.queryForObject("SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'TASKS'", Integer.class) == 0) {
+            for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+                east.execute(statement);
+            }
+            // A shard has no users rows to point at
+            for (String constraint : east.queryForList("SELECT constraint_name FROM information_schema.table_constraints "
+                    + "WHERE table_name = 'TASKS' AND constraint_type = 'FOREIGN KEY'", String.class)) {
+                east.execute("ALTER TABLE tasks DROP CONSTRAINT " + constraint);
+            }
+            east.execute("ALTER SEQUENCE tasks_seq RESTART WITH " + (1L << 40));
+            east.execute("ALTER SEQUENCE task_tombstones_seq RESTART WITH " + (1L << 40));
+        }
+
+        String email = UUID.randomUUID() + "@example.com";
+        user = userRepository.save(new User(email, "Sharded", email, null));
+    }
+
+    @Test
+    void usersWithoutAnEntryStayOnThePrimary() throws Exception {
+        create("On the primary");
+
+        assertThat(count(primary, "tasks")).isEqualTo(1);
+        assertThat(count(east, "tasks")).isZero();
+    }
+
+    @Test
+    void tasksOfAShardedUserAreStoredAndReadOnTheirShard() throws Exception {
+        directory.put(user.getId(), "east", false);
+        create("In the east");
+
+        assertThat(count(east, "tasks")).isEqualTo(1);
+        assertThat(count(primary, "tasks")).isZero();
+        mockMvc.perform(authed(get("/api/tasks")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].title").value(containsInAnyOrder("In the east")));
+    }
+
+    @Test
+    void moveCopiesTasksAndTombstonesAndSwitchesTheUser() throws Exception {
+        create("Kept");
+        long deleted = create("Deleted");
+        mockMvc.perform(authed(delete("/api/tasks/" + deleted))).andExpect(status().isOk());
+
+        assertThat(mover.move(user.getId(), "east")).isEqualTo(1);
+
+        assertThat(directory.shardOf(user.getId())).isEqualTo("east");
+        assertThat(count(primary, "tasks")).isZero();
+        assertThat(count(primary, "task_tombstones")).isZero();
+        assertThat(count(east, "tasks")).isEqualTo(1);
+        assertThat(count(east, "task_tombstones")).isEqualTo(1);
+
+        create("Written after the move");
+        mockMvc.perform(authed(get("/api/tasks")))
+            .andExpect(jsonPath("$[*].title").value(containsInAnyOrder("Kept", "Written after the move")));
+        assertThat(count(east, "tasks")).isEqualTo(2);
+    }
+
+    @Test
+    void writesAreRefusedWhileMovingButReadsAreServed() throws Exception {
+        create("Before the move");
+        directory.put(user.getId(), TaskShard.PRIMARY, true);
+
+        mockMvc.perform(authed(post("/api/tasks")).content("{\"title\":\"Refused\",\"priority\":\"LOW\"}"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().exists("Retry-After"));
+        mockMvc.perform(authed(get("/api/tasks")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].title").value(containsInAnyOrder("Before the move")));
+    }
+
+    @Test
+    void endpointStartsTheMoveAndReturnsAtOnce() throws Exception {
+        create("Moved in the background");
+
+        assertThat(endpoint.move(user.getId(), "east")).containsEntry("status", "started");
+        // Marked as moving at once, then a TTL's wait on each side of the copy
+        await(() -> endpoint.placement(user.getId()).shard().equals("east") && !endpoint.placement(user.getId()).moving());
+        await(() -> count(primary, "tasks") == 0);
+        assertThat(count(east, "tasks")).isEqualTo(1);
+    }
+
+    @Test
+    void endpointReadsTheStoredPlacementAndLeavesTheCacheAlone() {
+        directory.put(user.getId(), "east", false);
+        primary.update("UPDATE user_shards SET moving = TRUE WHERE user_id = ?", user.getId());
+
+        assertThat(endpoint.placement(user.getId())).isEqualTo(new TaskShardDirectory.Placement("east", true));
+        assertThat(directory.lookup(user.getId())).isEqualTo(new TaskShardDirectory.Placement("east", false));
+    }
+
+    @Test
+    void aWriteAlreadyRunningWhenTheMoveBeginsIsRolledBack() {
+        directory.put(user.getId(), TaskShard.PRIMARY, true);
+
+        // Past the request's placement check, as a bulk write that started just before the move would be
+        assertThatThrownBy(() -> TaskShard.run(TaskShard.PRIMARY, () -> taskService.createTasks(user.getId(), List.of(request("Late")))))
+            .isInstanceOf(TaskShardMovingException.class);
+        assertThat(count(primary, "tasks")).isZero();
+    }
+
+    @Test
+    void anImportThatOutlastsAMoveLosesNoCommittedRows() throws Exception {
+        PipedOutputStream upload = new PipedOutputStream();
+        PipedInputStream body = new PipedInputStream(upload);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<TaskImportResponse> importing = threads.submit(() -> {
+                TaskShard.enter(TaskShard.PRIMARY);
+                try {
+                    return importService.importTasks(user.getId(), TaskImportService.Format.NDJSON, body);
+                } finally {
+                    TaskShard.exit();
+                }
+            });
+            upload(upload, "Before 1", "Before 2");
+            await(() -> count(primary, "tasks") == 2);
+
+            // The whole move runs while the import waits for more input
+            assertThat(threads.submit(() -> mover.move(user.getId(), "east")).get(10, TimeUnit.SECONDS)).isEqualTo(2);
+            upload(upload, "After 1", "After 2");
+            upload.close();
+
+            assertThatThrownBy(() -> importing.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(TaskShardMovingException.class)
+                .hasMessageContaining("after 2 rows were imported");
+            assertThat(count(east, "tasks")).isEqualTo(2);
+            assertThat(count(primary, "tasks")).isZero();
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private long create(String title) throws Exception {
+        String body = mockMvc.perform(authed(post("/api/tasks")).content("{\"title\":\"" + title + "\",\"priority\":\"LOW\"}"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private static void upload(OutputStream upload, String... titles) throws IOException {
+        for (String title : titles) {
+            upload.write(("{\"title\":\"" + title + "\",\"priority\":\"LOW\"}\n").getBytes(StandardCharsets.UTF_8));
+        }
+        upload.flush();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static TaskRequest request(String title) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setPriority(Task.Priority.LOW);
+        return request;
+    }
+
+    private int count(JdbcTemplate shard, String table) {
+        return shard.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", Integer.class, user.getId());
+    }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user.getEmail(), user.getId()))
+            .contentType(MediaType.APPLICATION_JSON);
+    }
+}
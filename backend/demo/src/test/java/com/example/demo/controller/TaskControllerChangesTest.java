@@ -0,0 +1,156 @@
+package com.example.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Polls delta sync with no settle delay: a write is returned by the first
+ * poll after it commits, pages resume where the last one stopped, and each
+ * change is seen once.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class TaskControllerChangesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    @BeforeEach
+    void createUser() {
+        String email = UUID.randomUUID() + "@example.com";
+        User user = userRepository.save(new User(email, "Syncing", email, null));
+        token = jwtUtil.generateToken(email, user.getId());
+    }
+
+    @Test
+    void freshSyncReturnsTasksButNotEarlierDeletions() throws Exception {
+        long kept = createTask("Kept");
+        long gone = createTask("Gone");
+        mockMvc.perform(authed(delete("/api/tasks/" + gone))).andExpect(status().isOk());
+
+        JsonNode changes = changes(null, 50);
+
+        assertThat(ids(changes.get("changed"))).containsExactly(kept);
+        assertThat(changes.get("deleted")).isEmpty();
+        assertThat(changes.get("hasMore").booleanValue()).isFalse();
+    }
+
+    @Test
+    void writesShowUpOnTheNextPollExactlyOnce() throws Exception {
+        long first = createTask("First");
+        String cursor = changes(null, 50).get("next").textValue();
+
+        long second = createTask("Second");
+        mockMvc.perform(authed(patch("/api/tasks/" + first + "/status")).param("status", "DONE"))
+            .andExpect(status().isOk());
+        JsonNode changes = changes(cursor, 50);
+        assertThat(ids(changes.get("changed"))).containsExactly(second, first);
+
+        mockMvc.perform(authed(delete("/api/tasks/" + second))).andExpect(status().isOk());
+        changes = changes(changes.get("next").textValue(), 50);
+        assertThat(changes.get("changed")).isEmpty();
+        assertThat(ids(changes.get("deleted"))).containsExactly(second);
+
+        changes = changes(changes.get("next").textValue(), 50);
+        assertThat(changes.get("changed")).isEmpty();
+        assertThat(changes.get("deleted")).isEmpty();
+    }
+
+    @Test
+    void pagesResumeAfterTheLastRow() throws Exception {
+        List<Long> created = new ArrayList<>();
+        for (String title : List.of("One", "Two", "Three")) {
+            created.add(createTask(title));
+        }
+
+        JsonNode page = changes(null, 2);
+        assertThat(page.get("hasMore").booleanValue()).isTrue();
+        List<Long> seen = new ArrayList<>(ids(page.get("changed")));
+        page = changes(page.get("next").textValue(), 2);
+        assertThat(page.get("hasMore").booleanValue()).isFalse();
+        seen.addAll(ids(page.get("changed")));
+
+        assertThat(seen).isEqualTo(created);
+    }
+
+    @Test
+    void timestampCursorsFromBeforeChangeSequencesNeedAResync() throws Exception {
+        String legacy = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            "2030-01-01T00:00|1|2030-01-01T00:00|1".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(authed(get("/api/tasks/changes")).param("since", legacy))
+            .andExpect(status().isGone());
+    }
+
+    private long createTask(String title) throws Exception {
+        String body = mockMvc.perform(authed(post("/api/tasks"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("title", title, "priority", "LOW"))))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").longValue();
+    }
+
+    private JsonNode changes(String since, int limit) throws Exception {
+        MockHttpServletRequestBuilder request = authed(get("/api/tasks/changes")).param("limit", String.valueOf(limit));
+        if (since != null) {
+            request.param("since", since);
+        }
+        String body = mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<Long> ids(JsonNode nodes) {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode node : nodes) {
+            ids.add(node.isNumber() ? node.longValue() : node.get("id").longValue());
+        }
+        return ids;
+    }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
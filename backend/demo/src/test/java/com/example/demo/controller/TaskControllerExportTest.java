@@ -0,0 +1,128 @@
+package com.example.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exports more tasks than one batch holds, so every format has to stitch
+ * several keyset reads together without dropping or repeating a row.
+ */
+@SpringBootTest(properties = {
+    "tasks.export.batch-size=2",
+    // A context of its own: on the shared database its create-drop would reset sequences under the cached contexts
+    "spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class TaskControllerExportTest {
+
+    private static final String AWKWARD_TITLE = "Say \"hi\", then\nleave";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void createUserWithTasks() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        User user = userRepository.save(new User(email, "Exporter", email, null));
+        token = jwtUtil.generateToken(email, user.getId());
+        for (String title : List.of("First", AWKWARD_TITLE, "Third", "Fourth", "Fifth")) {
+            String body = mockMvc.perform(authed(post("/api/tasks"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("title", title, "priority", "LOW"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readTree(body).get("id").longValue());
+        }
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLineInIdOrder() throws Exception {
+        String body = mockMvc.perform(authed(get("/api/tasks/export")))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.ndjson\""))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(ids.size());
+        List<Long> exported = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode task = objectMapper.readTree(line);
+            exported.add(task.get("id").longValue());
+            assertThat(task.get("priority").textValue()).isEqualTo("LOW");
+            assertThat(task.get("overdue").booleanValue()).isFalse();
+        }
+        assertThat(exported).isEqualTo(ids);
+        assertThat(objectMapper.readTree(lines[1]).get("title").textValue()).isEqualTo(AWKWARD_TITLE);
+    }
+
+    @Test
+    void csvQuotesFieldsThatNeedIt() throws Exception {
+        String body = mockMvc.perform(authed(get("/api/tasks/export")).param("format", "csv"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\""))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] records = body.split("\r\n");
+        assertThat(records).hasSize(ids.size() + 1);
+        assertThat(records[0]).isEqualTo("id,title,description,dueDate,priority,status,createdAt,updatedAt");
+        assertThat(records[1]).startsWith(ids.get(0) + ",First,,,LOW,TODO,");
+        // The embedded newline stays inside the quotes, and the quotes inside are doubled
+        assertThat(records[2]).startsWith(ids.get(1) + ",\"Say \"\"hi\"\", then\nleave\",,,LOW,TODO,");
+        for (int i = 0; i < ids.size(); i++) {
+            assertThat(records[i + 1]).startsWith(ids.get(i) + ",");
+        }
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        mockMvc.perform(authed(get("/api/tasks/export")).param("format", "xml"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
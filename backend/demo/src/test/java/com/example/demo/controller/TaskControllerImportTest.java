@@ -0,0 +1,164 @@
+package com.example.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.CsvReader;
+import com.example.demo.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Imports through the endpoint: bad lines are reported by line number while
+ * the good ones are committed, and a CSV export imports back unchanged.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class TaskControllerImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    @BeforeEach
+    void createUser() {
+        token = tokenForNewUser();
+    }
+
+    @Test
+    void reportsBadLinesAndImportsTheRest() throws Exception {
+        String csv = "title,priority,dueDate\r\n"
+            + "Good,HIGH,2030-01-02T03:04:05\r\n"
+            + "Bad date,LOW,tomorrow\r\n"
+            + "\r\n"
+            + "\"Spans\ntwo lines\",MEDIUM,\r\n"
+            + "Bad priority,URGENT,\r\n"
+            + ",LOW,\r\n"
+            + "Last,LOW,\r\n";
+
+        mockMvc.perform(authed(token, post("/api/tasks/import"))
+                .contentType("text/csv")
+                .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(3))
+            .andExpect(jsonPath("$.failed").value(3))
+            .andExpect(jsonPath("$.errorsTruncated").value(false))
+            .andExpect(jsonPath("$.errors[0].line").value(3))
+            .andExpect(jsonPath("$.errors[0].message").value("Invalid dueDate: tomorrow"))
+            // The quoted line break pushes the following records down a line
+            .andExpect(jsonPath("$.errors[1].line").value(7))
+            .andExpect(jsonPath("$.errors[1].message").value("Invalid priority or status"))
+            .andExpect(jsonPath("$.errors[2].line").value(8))
+            .andExpect(jsonPath("$.errors[2].message").value("Title is required"));
+
+        mockMvc.perform(authed(token, get("/api/tasks")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void ndjsonReportsInvalidJsonByLine() throws Exception {
+        String ndjson = "{\"title\":\"One\",\"priority\":\"LOW\"}\n"
+            + "{not json\n"
+            + "\n"
+            + "{\"title\":\"No priority\"}\n"
+            + "{\"title\":\"Two\",\"priority\":\"HIGH\"}\n";
+
+        mockMvc.perform(authed(token, post("/api/tasks/import"))
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(2))
+            .andExpect(jsonPath("$.errors[0].line").value(2))
+            .andExpect(jsonPath("$.errors[1].line").value(4))
+            .andExpect(jsonPath("$.errors[1].message").value("Priority is required"));
+    }
+
+    @Test
+    void csvExportImportsBackUnchanged() throws Exception {
+        List<Map<String, Object>> tasks = List.of(
+            Map.of("title", "Plain", "priority", "LOW"),
+            Map.of("title", "Say \"hi\", then\r\nleave", "description", "Line one\nline two", "priority", "HIGH",
+                "status", "IN_PROGRESS", "dueDate", "2030-01-02T03:04:05"),
+            Map.of("title", "Done, finally", "priority", "MEDIUM", "status", "DONE"));
+        for (Map<String, Object> task : tasks) {
+            mockMvc.perform(authed(token, post("/api/tasks"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isOk());
+        }
+        String exported = exportCsv(token);
+
+        String copyToken = tokenForNewUser();
+        mockMvc.perform(authed(copyToken, post("/api/tasks/import"))
+                .contentType("text/csv")
+                .content(exported))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(tasks.size()))
+            .andExpect(jsonPath("$.failed").value(0));
+
+        assertThat(userColumns(exportCsv(copyToken))).isEqualTo(userColumns(exported));
+    }
+
+    private String exportCsv(String userToken) throws Exception {
+        return mockMvc.perform(authed(userToken, get("/api/tasks/export")).param("format", "csv"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    // Every record without the id and the two timestamps, which the import assigns afresh
+    private static List<List<String>> userColumns(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record.subList(1, 6));
+        }
+        return records;
+    }
+
+    private String tokenForNewUser() {
+        String email = UUID.randomUUID() + "@example.com";
+        User user = userRepository.save(new User(email, "Importer", email, null));
+        return jwtUtil.generateToken(email, user.getId());
+    }
+
+    private MockHttpServletRequestBuilder authed(String userToken, MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.controller;
+
+import static com.example.demo.support.SqlStatementMatchers.sqlStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Pins the number of SQL statements each TaskController endpoint issues,
+ * authentication included. A change that adds a query has to update the
+ * expected count here, and the endpoint's @StatementBudget if it goes over.
+ * Ids come from the sequence one at a time here, so every insert costs one
+ * extra statement no matter where the pooled optimizer is in its block of 50;
+ * in production that round trip is amortised over 50 inserts.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=none")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class TaskControllerStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    // A fresh user per test, so counts never depend on another test's tasks
+    @BeforeEach
+    void createUser() {
+        String email = UUID.randomUUID() + "@example.com";
+        User user = userRepository.save(new User(email, "Counted", email, null));
+        token = jwtUtil.generateToken(email, user.getId());
+    }
+
+    @Test
+    void listTasks() throws Exception {
+        createTask("First");
+        createTask("Second");
+        mockMvc.perform(authed(get("/api/tasks")))
+            .andExpect(status().isOk())
+            .andExpect(sqlStatements(1));
+    }
+
+    @Test
+    void listTasksByStatus() throws Exception {
+        createTask("First");
+        mockMvc.perform(authed(get("/api/tasks/status/TODO")))
+            .andExpect(status().isOk())
+            .andExpect(sqlStatements(1));
+    }
+
+    @Test
+    void pageTasks() throws Exception {
+        createTask("First");
+        mockMvc.perform(authed(get("/api/tasks/page").param("limit", "10")))
+            .andExpect(status().isOk())
+            .andExpect(sqlStatements(1));
+    }
+
+    @Test
+    void getTaskById() throws Exception {
+        long id = createTask("First");
+        mockMvc.perform(authed(get("/api/tasks/" + id)))
+            .andExpect(status().isOk())
+            .andExpect(sqlStatements(1));
+    }
+
+    @Test
+    void overdueTasks() throws Exception {
+        createTask("First");
+        mockMvc.perform(authed(get("/api/tasks/overdue")))
+            .andExpect(status().isOk())
+            .andExpect(sqlStatements(1));
+    }
+
+    @Test
+    void taskStats() throws Exception {
+        createTask("First");
+        mockMvc.perform(authed(get("/api/tasks/stats")))
+            .andExpect(status().isOk())
+            .andExpect(sqlStatements(1));
+    }
+
+    @Test
+    void createTask() throws Exception {
+        mockMvc.perform(authed(post("/api/tasks")).content(taskJson("Created")))
+            .andExpect(status().isOk())
+            // Change sequence bump and read, id sequence fetch, insert
+            .andExpect(sqlStatements(4));
+    }
+
+    @Test
+    void createTasksInBulk() throws Exception {
+        mockMvc.perform(authed(post("/api/tasks/bulk"))
+                .content("[" + taskJson("One") + "," + taskJson("Two") + "," + taskJson("Three") + "]"))
+            .andExpect(status().isOk())
+            // Change sequence bump and read, three id sequence fetches, one batched insert
+            .andExpect(sqlStatements(6));
+    }
+
+    @Test
+    void updateTask() throws Exception {
+        long id = createTask("First");
+        mockMvc.perform(authed(put("/api/tasks/" + id)).content(taskJson("Renamed")))
+            .andExpect(status().isOk())
+            .andExpect(sqlStatements(4));
+    }
+
+    @Test
+    void updateTaskStatus() throws Exception {
+        long id = createTask("First");
+        mockMvc.perform(authed(patch("/api/tasks/" + id + "/status")).param("status", "DONE"))
+            .andExpect(status().isOk())
+            .andExpect(sqlStatements(4));
+    }
+
+    @Test
+    void deleteTask() throws Exception {
+        long id = createTask("First");
+        mockMvc.perform(authed(delete("/api/tasks/" + id)))
+            .andExpect(status().isOk())
+            .andExpect(sqlStatements(5));
+    }
+
+    private long createTask(String title) throws Exception {
+        String body = mockMvc.perform(authed(post("/api/tasks")).content(taskJson(title)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode task = objectMapper.readTree(body);
+        return task.get("id").asLong();
+    }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private String taskJson(String title) {
+        return "{\"title\":\"" + title + "\",\"priority\":\"MEDIUM\",\"status\":\"TODO\",\"dueDate\":\""
+            + LocalDateTime.now().minusHours(1).withNano(0) + "\"}";
+    }
+}
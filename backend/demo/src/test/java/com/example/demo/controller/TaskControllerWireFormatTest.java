@@ -0,0 +1,105 @@
+package com.example.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.entity.Task;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Pins the compact encodings of task lists: enums as ordinals and timestamps
+ * as epoch millis in CBOR and Smile, while JSON keeps names and ISO strings.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class TaskControllerWireFormatTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2030, 1, 2, 3, 4, 5);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String token;
+
+    @BeforeEach
+    void createUserWithTask() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        User user = userRepository.save(new User(email, "Encoded", email, null));
+        token = jwtUtil.generateToken(email, user.getId());
+        mockMvc.perform(authed(post("/api/tasks"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Encoded\",\"priority\":\"HIGH\",\"status\":\"IN_PROGRESS\",\"dueDate\":\"" + DUE + "\"}"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void jsonKeepsNamesAndIsoTimestamps() throws Exception {
+        mockMvc.perform(authed(get("/api/tasks")).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].priority").value("HIGH"))
+            .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"))
+            .andExpect(jsonPath("$[0].dueDate").value("2030-01-02T03:04:05"));
+    }
+
+    @Test
+    void cborUsesOrdinalsAndEpochMillis() throws Exception {
+        assertCompact(new ObjectMapper(new CBORFactory()), "application/cbor");
+    }
+
+    @Test
+    void smileUsesOrdinalsAndEpochMillis() throws Exception {
+        assertCompact(new ObjectMapper(new SmileFactory()), "application/x-jackson-smile");
+    }
+
+    private void assertCompact(ObjectMapper decoder, String mediaType) throws Exception {
+        byte[] body = mockMvc.perform(authed(get("/api/tasks")).header(HttpHeaders.ACCEPT, mediaType))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(mediaType))
+            .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/")))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode task = decoder.readTree(body).get(0);
+        assertThat(task.get("priority").intValue()).isEqualTo(Task.Priority.HIGH.ordinal());
+        assertThat(task.get("status").intValue()).isEqualTo(Task.Status.IN_PROGRESS.ordinal());
+        assertThat(task.get("dueDate").longValue()).isEqualTo(DUE.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        assertThat(task.get("createdAt").isIntegralNumber()).isTrue();
+    }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+
+// Latency samples for one endpoint; each worker thread records into its own instance and they are merged at the end
+class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    void merge(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i]);
+        }
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    // Nearest-rank percentile in milliseconds; sorts in place, so call after recording has finished
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(samples, 0, count);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return samples[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
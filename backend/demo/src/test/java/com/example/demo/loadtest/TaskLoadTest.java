@@ -0,0 +1,303 @@
+package com.example.demo.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * End-to-end load test. Boots the app on an embedded H2 database, mints JWTs
+ * through JwtUtil and drives a weighted mix of TaskController calls over HTTP
+ * from a fixed number of concurrent clients. Prints p50/p95/p99 and throughput
+ * per endpoint and fails when p95, p99 or throughput regress past the stored
+ * baseline by more than the tolerance, or when any request fails.
+ *
+ * <pre>
+ * ./mvnw test -Dtest=TaskLoadTest -Dloadtest=true [-Dloadtest.concurrency=32 -Dloadtest.duration-seconds=60]
+ * ./mvnw test -Dtest=TaskLoadTest -Dloadtest=true -Dloadtest.update-baseline=true
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("embedded")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class TaskLoadTest {
+
+    enum Endpoint { LIST, CREATE, STATUS, DELETE, OVERDUE }
+
+    private record Client(String token, ConcurrentLinkedDeque<Long> taskIds) {}
+
+    private final int users = Integer.getInteger("loadtest.users", 20);
+    private final int seedTasks = Integer.getInteger("loadtest.seed-tasks", 200);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 5);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 20);
+    private final String mix = System.getProperty("loadtest.mix", "LIST:40,CREATE:20,STATUS:20,DELETE:10,OVERDUE:10");
+    private final Path baselinePath = Path.of(System.getProperty("loadtest.baseline", "src/test/resources/loadtest-baseline.properties"));
+    private final double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.25"));
+    // Absolute slack so sub-millisecond noise on fast endpoints does not fail the run
+    private final double minSlackMillis = Double.parseDouble(System.getProperty("loadtest.min-slack-ms", "2"));
+    private final boolean updateBaseline = Boolean.getBoolean("loadtest.update-baseline");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    @Test
+    void mixedTraffic() throws Exception {
+        List<Client> clients = seed();
+        Endpoint[] weighted = parseMix(mix);
+
+        run(clients, weighted, warmupSeconds);
+        long started = System.nanoTime();
+        Map<Endpoint, LatencyStats> results = run(clients, weighted, durationSeconds);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Properties measured = report(results, elapsedSeconds);
+        if (updateBaseline) {
+            try (OutputStream out = Files.newOutputStream(baselinePath)) {
+                measured.store(out, "TaskLoadTest baseline: users=" + users + " concurrency=" + concurrency
+                    + " duration=" + durationSeconds + "s mix=" + mix);
+            }
+            System.out.println("Baseline written to " + baselinePath.toAbsolutePath());
+        }
+
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<Endpoint, LatencyStats> entry : results.entrySet()) {
+            if (entry.getValue().errors() > 0) {
+                failures.add(entry.getKey() + ": " + entry.getValue().errors() + " failed requests");
+            }
+        }
+        if (!updateBaseline) {
+            failures.addAll(compareToBaseline(measured));
+        }
+        assertTrue(failures.isEmpty(), "Load test regressions:\n  " + String.join("\n  ", failures));
+    }
+
+    // Users are written directly; their tasks go through the bulk endpoint like any client's would
+    private List<Client> seed() throws IOException, InterruptedException {
+        List<Client> clients = new ArrayList<>(users);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < users; i++) {
+            String email = "load" + i + "@example.com";
+            User user = userRepository.save(new User(email, "Load " + i, "load-" + i, null));
+            Client client = new Client(jwtUtil.generateToken(email, user.getId()), new ConcurrentLinkedDeque<>());
+
+            StringBuilder body = new StringBuilder("[");
+            for (int t = 0; t < seedTasks; t++) {
+                if (t > 0) {
+                    body.append(',');
+                }
+                // Spread due dates across the past and future so the overdue list is never empty
+                body.append(taskJson("Seed " + t, now.plusHours(t % 48 - 24)));
+            }
+            body.append(']');
+            HttpResponse<String> response = send(client, "POST", "/bulk", body.toString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode task : objectMapper.readTree(response.body())) {
+                client.taskIds().add(task.get("id").asLong());
+            }
+            clients.add(client);
+        }
+        return clients;
+    }
+
+    private Map<Endpoint, LatencyStats> run(List<Client> clients, Endpoint[] weighted, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Map<Endpoint, LatencyStats>>> futures = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                futures.add(workers.submit(() -> work(clients, weighted, deadline)));
+            }
+            Map<Endpoint, LatencyStats> merged = new EnumMap<>(Endpoint.class);
+            for (Future<Map<Endpoint, LatencyStats>> future : futures) {
+                future.get().forEach((endpoint, stats) -> merged.computeIfAbsent(endpoint, e -> new LatencyStats()).merge(stats));
+            }
+            return merged;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Map<Endpoint, LatencyStats> work(List<Client> clients, Endpoint[] weighted, long deadline) throws InterruptedException {
+        Map<Endpoint, LatencyStats> stats = new EnumMap<>(Endpoint.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Client client = clients.get(random.nextInt(clients.size()));
+            Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+            Long taskId = null;
+            if (endpoint == Endpoint.STATUS || endpoint == Endpoint.DELETE) {
+                taskId = client.taskIds().pollFirst();
+                if (taskId == null) {
+                    endpoint = Endpoint.CREATE;
+                }
+            }
+
+            LatencyStats endpointStats = stats.computeIfAbsent(endpoint, e -> new LatencyStats());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = call(client, endpoint, taskId);
+                long elapsed = System.nanoTime() - start;
+                if (response.statusCode() / 100 != 2) {
+                    endpointStats.recordError();
+                    continue;
+                }
+                endpointStats.record(elapsed);
+                if (endpoint == Endpoint.CREATE) {
+                    client.taskIds().addLast(objectMapper.readTree(response.body()).get("id").asLong());
+                } else if (endpoint == Endpoint.STATUS) {
+                    client.taskIds().addLast(taskId);
+                }
+            } catch (IOException e) {
+                endpointStats.recordError();
+            }
+        }
+        return stats;
+    }
+
+    private HttpResponse<String> call(Client client, Endpoint endpoint, Long taskId) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (endpoint) {
+            case LIST:
+                return send(client, "GET", "", null);
+            case CREATE:
+                return send(client, "POST", "", taskJson("Load task", LocalDateTime.now().plusHours(random.nextInt(-24, 48))));
+            case STATUS:
+                String status = random.nextBoolean() ? "DONE" : "IN_PROGRESS";
+                return send(client, "PATCH", "/" + taskId + "/status?status=" + status, null);
+            case DELETE:
+                return send(client, "DELETE", "/" + taskId, null);
+            case OVERDUE:
+                return send(client, "GET", "/overdue", null);
+            default:
+                throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        }
+    }
+
+    private HttpResponse<String> send(Client client, String method, String path, String json) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks" + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + client.token());
+        if (json != null) {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String taskJson(String title, LocalDateTime dueDate) {
+        return "{\"title\":\"" + title + "\",\"description\":\"Generated by TaskLoadTest\",\"priority\":\"MEDIUM\","
+            + "\"dueDate\":\"" + dueDate.withNano(0) + "\"}";
+    }
+
+    // "LIST:40,CREATE:20" becomes a lookup table with one slot per unit of weight
+    private static Endpoint[] parseMix(String mix) {
+        List<Endpoint> slots = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            Endpoint endpoint = Endpoint.valueOf(pair[0].trim().toUpperCase());
+            for (int i = Integer.parseInt(pair[1].trim()); i > 0; i--) {
+                slots.add(endpoint);
+            }
+        }
+        return slots.toArray(new Endpoint[0]);
+    }
+
+    private Properties report(Map<Endpoint, LatencyStats> results, double elapsedSeconds) {
+        Properties measured = new Properties();
+        StringBuilder table = new StringBuilder(String.format("%n%-8s %9s %7s %9s %9s %9s %11s%n",
+            "endpoint", "requests", "errors", "p50 ms", "p95 ms", "p99 ms", "req/s"));
+        for (Map.Entry<Endpoint, LatencyStats> entry : results.entrySet()) {
+            String key = entry.getKey().name().toLowerCase();
+            LatencyStats stats = entry.getValue();
+            double p50 = stats.percentileMillis(50);
+            double p95 = stats.percentileMillis(95);
+            double p99 = stats.percentileMillis(99);
+            double throughput = stats.count() / elapsedSeconds;
+            table.append(String.format("%-8s %9d %7d %9.2f %9.2f %9.2f %11.1f%n",
+                key, stats.count(), stats.errors(), p50, p95, p99, throughput));
+            measured.setProperty(key + ".p50", String.format("%.3f", p50));
+            measured.setProperty(key + ".p95", String.format("%.3f", p95));
+            measured.setProperty(key + ".p99", String.format("%.3f", p99));
+            measured.setProperty(key + ".throughput", String.format("%.1f", throughput));
+        }
+        System.out.println(table);
+        return measured;
+    }
+
+    private List<String> compareToBaseline(Properties measured) throws IOException {
+        List<String> failures = new ArrayList<>();
+        if (!Files.exists(baselinePath)) {
+            System.out.println("No baseline at " + baselinePath + "; run with -Dloadtest.update-baseline=true to record one");
+            return failures;
+        }
+        Properties baseline = new Properties();
+        try (InputStream in = Files.newInputStream(baselinePath)) {
+            baseline.load(in);
+        }
+        for (String key : measured.stringPropertyNames()) {
+            String expected = baseline.getProperty(key);
+            if (expected == null || key.endsWith(".p50")) {
+                continue;
+            }
+            double base = Double.parseDouble(expected);
+            double actual = Double.parseDouble(measured.getProperty(key));
+            if (key.endsWith(".throughput")) {
+                if (actual < base * (1 - tolerance)) {
+                    failures.add(String.format("%s %.1f req/s is below baseline %.1f", key, actual, base));
+                }
+            } else if (actual > Math.max(base * (1 + tolerance), base + minSlackMillis)) {
+                failures.add(String.format("%s %.2f ms exceeds baseline %.2f ms", key, actual, base));
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.entity.Task;
+
+/**
+ * RFC 4180 quoting of single CSV fields: plain values pass through, anything
+ * with a separator, quote or line break is quoted with its quotes doubled.
+ */
+class TaskExportServiceTest {
+
+    @Test
+    void plainValuesAreWrittenAsIs() {
+        assertThat(TaskExportService.csvField("Buy milk")).isEqualTo("Buy milk");
+        assertThat(TaskExportService.csvField(Task.Priority.HIGH)).isEqualTo("HIGH");
+        assertThat(TaskExportService.csvField(LocalDateTime.of(2030, 1, 2, 3, 4, 5))).isEqualTo("2030-01-02T03:04:05");
+    }
+
+    @Test
+    void nullAndEmptyBecomeAnEmptyField() {
+        assertThat(TaskExportService.csvField(null)).isEmpty();
+        assertThat(TaskExportService.csvField("")).isEmpty();
+    }
+
+    @Test
+    void separatorsAndLineBreaksAreQuoted() {
+        assertThat(TaskExportService.csvField("a,b")).isEqualTo("\"a,b\"");
+        assertThat(TaskExportService.csvField("line\nbreak")).isEqualTo("\"line\nbreak\"");
+        assertThat(TaskExportService.csvField("line\r\nbreak")).isEqualTo("\"line\r\nbreak\"");
+        assertThat(TaskExportService.csvField("carriage\rreturn")).isEqualTo("\"carriage\rreturn\"");
+    }
+
+    @Test
+    void quotesAreDoubledInsideQuotes() {
+        assertThat(TaskExportService.csvField("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(TaskExportService.csvField("\"")).isEqualTo("\"\"\"\"");
+    }
+
+    @Test
+    void leadingAndTrailingSpacesAreKept() {
+        assertThat(TaskExportService.csvField("  padded  ")).isEqualTo("  padded  ");
+    }
+}
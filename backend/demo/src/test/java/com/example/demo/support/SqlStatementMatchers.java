@@ -0,0 +1,23 @@
+package com.example.demo.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.example.demo.config.StatementBudgetFilter;
+
+// MockMvc matchers on the SQL statements StatementBudgetFilter counted for a request
+public final class SqlStatementMatchers {
+
+    private SqlStatementMatchers() {}
+
+    public static ResultMatcher sqlStatements(int expected) {
+        return result -> {
+            Object counted = result.getRequest().getAttribute(StatementBudgetFilter.STATEMENTS_ATTRIBUTE);
+            assertNotNull(counted, "StatementBudgetFilter did not run for " + result.getRequest().getRequestURI());
+            assertEquals(expected, counted, "SQL statements for " + result.getRequest().getMethod()
+                + " " + result.getRequest().getRequestURI());
+        };
+    }
+}
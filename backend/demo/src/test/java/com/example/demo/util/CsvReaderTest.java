@@ -0,0 +1,95 @@
+package com.example.demo.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Parses small inputs record by record: quoting, every line-break style,
+ * blank lines, and where each record starts when quoted fields span lines.
+ */
+class CsvReaderTest {
+
+    @Test
+    void splitsPlainRecordsOnCommas() throws IOException {
+        assertThat(readAll("a,b,c\n1,2,3\n")).containsExactly(List.of("a", "b", "c"), List.of("1", "2", "3"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertThat(readAll("a,,c\n,\n")).containsExactly(List.of("a", "", "c"), List.of("", ""));
+    }
+
+    @Test
+    void acceptsLfCrLfAndBareCr() throws IOException {
+        assertThat(readAll("a\r\nb\nc\rd")).containsExactly(List.of("a"), List.of("b"), List.of("c"), List.of("d"));
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreak() throws IOException {
+        assertThat(readAll("a,b")).containsExactly(List.of("a", "b"));
+    }
+
+    @Test
+    void quotedFieldsKeepSeparatorsAndDoubledQuotes() throws IOException {
+        assertThat(readAll("\"a,b\",\"say \"\"hi\"\"\",\"\"\n"))
+            .containsExactly(List.of("a,b", "say \"hi\"", ""));
+    }
+
+    @Test
+    void quotedFieldsKeepLineBreaks() throws IOException {
+        assertThat(readAll("\"one\ntwo\",\"three\r\nfour\"\r\nnext\r\n"))
+            .containsExactly(List.of("one\ntwo", "three\r\nfour"), List.of("next"));
+    }
+
+    @Test
+    void aQuotedEmptyLineIsARecordNotABlankLine() throws IOException {
+        assertThat(readAll("\"\"\nnext\n")).containsExactly(List.of(""), List.of("next"));
+    }
+
+    @Test
+    void skipsBlankLines() throws IOException {
+        assertThat(readAll("\n\na\r\n\r\n\nb\n\n")).containsExactly(List.of("a"), List.of("b"));
+        assertThat(readAll("")).isEmpty();
+        assertThat(readAll("\n\r\n")).isEmpty();
+    }
+
+    @Test
+    void reportsTheLineEachRecordStartsOn() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a\n\n\"b\nc\nd\",e\r\nf\n"));
+
+        assertThat(reader.next()).containsExactly("a");
+        assertThat(reader.getRecordLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("b\nc\nd", "e");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+        assertThat(reader.next()).containsExactly("f");
+        assertThat(reader.getRecordLine()).isEqualTo(6);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuote() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("ok\n\"open,\nnever closed\n"));
+
+        assertThat(reader.next()).containsExactly("ok");
+        assertThatThrownBy(reader::next)
+            .isInstanceOf(CsvReader.MalformedCsvException.class)
+            .hasMessageContaining("line 2");
+    }
+
+    private static List<List<String>> readAll(String input) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(input));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks when timers fire: never before their deadline, on the first tick at
+ * or after it, whether they start on level 0, on a coarser level that has to
+ * cascade down, or parked beyond the top level's range.
+ */
+class TimingWheelTest {
+
+    @Test
+    void firesOnTheFirstTickAtOrAfterTheDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 2, 0);
+        wheel.schedule(35, "a");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(39, fired::add);
+        assertThat(fired).isEmpty();
+
+        wheel.advance(40, fired::add);
+        assertThat(fired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 2, 1_000);
+        wheel.schedule(500, "late");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1_009, fired::add);
+        assertThat(fired).isEmpty();
+
+        wheel.advance(1_010, fired::add);
+        assertThat(fired).containsExactly("late");
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 2, 0);
+        TimingWheel.Timer<String> kept = wheel.schedule(5, "kept");
+        TimingWheel.Timer<String> cancelled = wheel.schedule(5, "cancelled");
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        assertThat(cancelled.isPending()).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(10, fired::add);
+        assertThat(fired).containsExactly("kept");
+        assertThat(kept.isPending()).isFalse();
+        assertThat(wheel.cancel(kept)).isFalse();
+    }
+
+    @Test
+    void timersOnACoarserLevelCascadeDownAndFireOnTime() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+        // 64 * 64 + 64 * 3 + 5 ticks out starts on level 2
+        long deadline = 64 * 64 + 64 * 3 + 5;
+        TimingWheel.Timer<String> timer = wheel.schedule(deadline, "far");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(deadline - 1, fired::add);
+        assertThat(fired).isEmpty();
+        assertThat(timer.isPending()).isTrue();
+
+        wheel.advance(deadline, fired::add);
+        assertThat(fired).containsExactly("far");
+    }
+
+    @Test
+    void cancelWorksAfterATimerHasCascaded() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 2, 0);
+        TimingWheel.Timer<String> timer = wheel.schedule(200, "moved");
+
+        List<String> fired = new ArrayList<>();
+        // Past the cascade at tick 192, which moves the timer down to level 0
+        wheel.advance(195, fired::add);
+        assertThat(wheel.cancel(timer)).isTrue();
+
+        wheel.advance(300, fired::add);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void timersBeyondTheTopLevelStayParkedUntilTheirDeadline() {
+        // One level covers 64 ticks; 1000 is far beyond it
+        TimingWheel<String> wheel = new TimingWheel<>(1, 1, 0);
+        wheel.schedule(1_000, "parked");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(999, fired::add);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(1_000, fired::add);
+        assertThat(fired).containsExactly("parked");
+    }
+
+    @Test
+    void manyTimersEachFireOnTheirOwnTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 2, 0);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 0; id < 2_000; id++) {
+            // Spans level 0, level 1 and parked timers beyond 64 * 64 ticks
+            long deadline = 1 + random.nextInt(10_000);
+            deadlines.put(id, deadline);
+            wheel.schedule(deadline, id);
+        }
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long now = 1; now <= 10_000; now++) {
+            long tick = now;
+            wheel.advance(now, id -> firedAt.put(id, tick));
+        }
+
+        assertThat(firedAt).isEqualTo(deadlines);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advancingInOneJumpFiresEverythingDue() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 2, 0);
+        for (long deadline = 1; deadline <= 5_000; deadline += 7) {
+            wheel.schedule(deadline, deadline);
+        }
+        wheel.schedule(9_000, 9_000L);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(5_000, fired::add);
+
+        assertThat(fired).hasSize(715).doesNotContain(9_000L);
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThatThrownBy(() -> new TimingWheel<String>(0, 2, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimingWheel<String>(10, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimingWheel<String>(10, 11, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -3,8 +3,8 @@ import { FormsModule } from '@angular/forms';
 import { AuthService } from '../auth/auth.service';
 import { TaskService } from '../services/task.service';
 import { CommonModule } from '@angular/common';
-import { Observable } from 'rxjs';
-import { Task, TaskRequest, Status, Priority, TaskStats } from '../models/task.model';
+import { Observable, Subscription } from 'rxjs';
+import { Task, TaskRequest, Status, Priority, TaskStats, TaskSearchParams } from '../models/task.model';
 import { TaskListComponent } from '../components/task-list/task-list.component';
 import { TaskFormComponent } from '../components/task-form/task-form.component';
 
@@ -55,6 +55,10 @@ export class DashboardComponent implements OnInit {
 
   // Sorting
   sortBy: 'RECENT' | 'DEADLINE' | 'PRIORITY' = 'RECENT';
+
+  // Server-side search
+  private searchSub?: Subscription;
+  private readonly searchPageSize = 200;
   
   // Stats
   taskStats: TaskStats = {
@@ -185,64 +189,30 @@ export class DashboardComponent implements OnInit {
   }
 
   applyFilters() {
-    let filtered = [...this.tasks];
-    
-    // Apply status filter
-    if (this.currentFilter !== 'all') {
-      filtered = filtered.filter(task => task.status === this.currentFilter);
-    }
-    
-    // Apply search filter
-    if (this.searchTerm) {
-      const term = this.searchTerm.toLowerCase();
-      filtered = filtered.filter(task => 
-        task.title.toLowerCase().includes(term) || 
-        (task.description && task.description.toLowerCase().includes(term))
-      );
-    }
-
-    // Apply priority filter
-    if (this.filterPriority !== 'ALL') {
-      filtered = filtered.filter(t => t.priority === this.filterPriority);
-    }
-
-    // Show only overdue if toggled
-    if (this.showOverdueOnly) {
-      filtered = filtered.filter(t => t.overdue === true);
-    }
-
-    // Apply due date range
-    if (this.filterDueDateFrom) {
-      const from = new Date(this.filterDueDateFrom);
-      filtered = filtered.filter(t => t.dueDate && new Date(t.dueDate) >= from);
-    }
-    if (this.filterDueDateTo) {
-      const to = new Date(this.filterDueDateTo);
-      filtered = filtered.filter(t => t.dueDate && new Date(t.dueDate) <= to);
-    }
+    const criteria: TaskSearchParams = {
+      status: this.currentFilter !== 'all' ? this.currentFilter : undefined,
+      q: this.searchTerm || undefined,
+      priority: this.filterPriority !== 'ALL' ? this.filterPriority : undefined,
+      overdue: this.showOverdueOnly || undefined,
+      dueFrom: this.filterDueDateFrom || undefined,
+      dueTo: this.filterDueDateTo || undefined,
+      sort: this.sortBy,
+      size: this.searchPageSize
+    };
 
-    // Apply sorting
-    switch (this.sortBy) {
-      case 'RECENT':
-        filtered.sort((a,b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime());
-        break;
-      case 'DEADLINE':
-        filtered.sort((a,b) => {
-          if (!a.dueDate && !b.dueDate) return 0;
-          if (!a.dueDate) return 1;
-          if (!b.dueDate) return -1;
-          return new Date(a.dueDate).getTime() - new Date(b.dueDate).getTime();
-        });
-        break;
-      case 'PRIORITY':
-        const rank = (p: Priority) => p === Priority.HIGH ? 0 : p === Priority.MEDIUM ? 1 : 2;
-        filtered.sort((a,b) => rank(a.priority) - rank(b.priority));
-        break;
-    }
-    
-    this.filteredTasks = filtered;
-    // Update calendar when filters change
-    this.generateCalendar(filtered);
+    // Filtering and sorting happen on the server; drop any in-flight search superseded by this one
+    this.searchSub?.unsubscribe();
+    this.searchSub = this.taskService.searchTasks(criteria).subscribe({
+      next: (result) => {
+        this.filteredTasks = result.items;
+        // Update calendar when filters change
+        this.generateCalendar(result.items);
+      },
+      error: (err) => {
+        this.error = 'Failed to filter tasks';
+        console.error('Error searching tasks:', err);
+      }
+    });
   }
 
   onSearchChange(event: any) {
@@ -371,13 +341,19 @@ export class DashboardComponent implements OnInit {
   }
 
   calculateStats() {
-    this.taskStats = {
-      total: this.tasks.length,
-      todo: this.tasks.filter(t => t.status === Status.TODO).length,
-      inProgress: this.tasks.filter(t => t.status === Status.IN_PROGRESS).length,
-      done: this.tasks.filter(t => t.status === Status.DONE).length,
-      overdue: this.tasks.filter(t => t.overdue).length
-    };
+    // Counted on the server in a single grouped query
+    this.taskService.getTaskStats().subscribe({
+      next: (stats) => {
+        this.taskStats = {
+          total: stats.total,
+          todo: stats.byStatus.TODO ?? 0,
+          inProgress: stats.byStatus.IN_PROGRESS ?? 0,
+          done: stats.byStatus.DONE ?? 0,
+          overdue: stats.overdue
+        };
+      },
+      error: (err) => console.error('Error loading task stats:', err)
+    });
   }
 
   get Priority() { return Priority; }
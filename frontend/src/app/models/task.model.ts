@@ -31,6 +31,40 @@ export interface TaskRequest {
   status?: Status;
 }
 
+export interface TaskPage {
+  items: Task[];
+  next: string | null;
+}
+
+export type TaskSort = 'RECENT' | 'DEADLINE' | 'PRIORITY';
+
+export interface TaskSearchParams {
+  status?: Status;
+  q?: string;
+  priority?: Priority;
+  overdue?: boolean;
+  dueFrom?: string; // YYYY-MM-DD
+  dueTo?: string;   // YYYY-MM-DD
+  sort?: TaskSort;
+  page?: number;
+  size?: number;
+}
+
+export interface TaskSearchResult {
+  items: Task[];
+  page: number;
+  size: number;
+  totalElements: number;
+  totalPages: number;
+}
+
+export interface TaskStatsResult {
+  total: number;
+  overdue: number;
+  byStatus: Record<Status, number>;
+  byPriority: Record<Priority, number>;
+}
+
 export interface TaskStats {
   total: number;
   todo: number;
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Task, TaskRequest, Status } from '../models/task.model';
+import { Task, TaskRequest, Status, TaskPage, TaskSearchParams, TaskSearchResult, TaskStatsResult } from '../models/task.model';
 import { environment } from '../../environments/environment';
 
 @Injectable({
@@ -24,6 +24,36 @@ export class TaskService {
     return this.http.get<Task[]>(this.baseUrl, { headers: this.getAuthHeaders() });
   }
 
+  getTaskPage(cursor?: string | null, status?: Status, limit?: number): Observable<TaskPage> {
+    let params = new HttpParams();
+    if (cursor) params = params.set('cursor', cursor);
+    if (status) params = params.set('status', status);
+    if (limit) params = params.set('limit', limit);
+    return this.http.get<TaskPage>(`${this.baseUrl}/page`, {
+      headers: this.getAuthHeaders(),
+      params
+    });
+  }
+
+  searchTasks(criteria: TaskSearchParams): Observable<TaskSearchResult> {
+    let params = new HttpParams();
+    Object.entries(criteria).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        params = params.set(key, String(value));
+      }
+    });
+    return this.http.get<TaskSearchResult>(`${this.baseUrl}/search`, {
+      headers: this.getAuthHeaders(),
+      params
+    });
+  }
+
+  getTaskStats(): Observable<TaskStatsResult> {
+    return this.http.get<TaskStatsResult>(`${this.baseUrl}/stats`, {
+      headers: this.getAuthHeaders()
+    });
+  }
+
   getTasksByStatus(status: Status): Observable<Task[]> {
     return this.http.get<Task[]>(`${this.baseUrl}/status/${status}`, { 
       headers: this.getAuthHeaders() 
@@ -48,9 +78,10 @@ export class TaskService {
     });
   }
 
-  updateTaskStatus(id: number, status: Status): Observable<Task> {
-    return this.http.patch<Task>(`${this.baseUrl}/${id}/status?status=${status}`, {}, { 
-      headers: this.getAuthHeaders() 
+  // The dashboard reloads after a status change, so skip the echoed task body
+  updateTaskStatus(id: number, status: Status): Observable<void> {
+    return this.http.patch<void>(`${this.baseUrl}/${id}/status?status=${status}`, {}, { 
+      headers: this.getAuthHeaders().set('Prefer', 'return=minimal')
     });
   }
 